@@ -13,6 +13,8 @@ export const api = axios.create({
 export const endpoints = {
   catalog: '/catalog',
   simulate: '/simulate',
+  sweep: '/simulate/sweep',
+  quotes: '/quotes',
   recommendation: '/recommendation',
   checkout: '/checkout',
   users: '/users',
@@ -82,6 +84,7 @@ export interface SimulationResponse {
   options: Array<{
     kind: string;
     packId?: number;
+    packName?: string;
     nPacks: number;
     totalCost: number;
     currency: string;
@@ -92,10 +95,70 @@ export interface SimulationResponse {
       overMinCost: number;
       overSmsCost: number;
     };
+    purchases?: Array<{
+      packId: number;
+      packName: string;
+      fromDate: string;
+      toDate: string;
+      cost: number;
+    }>;
   }>;
   warnings: string[];
 }
 
+// Açık teklife gönderilen değişiklik (PATCH /quotes/{quoteId}, dizi olarak)
+export type QuoteDelta =
+  | { op: 'addLeg'; leg: TripInput }
+  | { op: 'updateLeg'; index: number; leg: TripInput }
+  | { op: 'removeLeg'; index: number }
+  | { op: 'setProfile'; profile: { avgDailyMb: number; avgDailyMin: number; avgDailySms: number } };
+
+export interface QuoteResponse {
+  quoteId: string;
+  revision: number;
+  trips: TripInput[];
+  recomputedPacks: number;
+  result: SimulationResponse;
+}
+
+// Profil ızgarası (POST /simulate/sweep); to/step verilmezse tek değer
+export interface SweepRange {
+  from: number;
+  to?: number;
+  step?: number;
+}
+
+export interface SweepRequest {
+  trips: TripInput[];
+  avgDailyMb: SweepRange;
+  avgDailyMin: SweepRange;
+  avgDailySms: SweepRange;
+  baseline?: { avgDailyMb: number; avgDailyMin: number; avgDailySms: number };
+}
+
+export interface SweepChoice {
+  kind: 'pack' | 'payg';
+  packId: number | null;
+  packName: string | null;
+}
+
+export interface SweepResponse {
+  days: number;
+  surface: Array<{
+    avgDailyMb: number;
+    avgDailyMin: number;
+    avgDailySms: number;
+    best: SweepChoice;
+    totalCost: number;
+  }>;
+  breakpoints: Array<{
+    axis: 'avgDailyMb' | 'avgDailyMin' | 'avgDailySms';
+    at: number;
+    before: SweepChoice;
+    after: SweepChoice;
+  }>;
+}
+
 export interface RecommendationResponse {
   top3: Array<{
     label: string;
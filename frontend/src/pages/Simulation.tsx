@@ -185,12 +185,14 @@ const Simulation: React.FC = () => {
                     {simulationData.options.map((option, index) => (
                       <TableRow key={index}>
                         <TableCell>
-                          {option.kind === 'pack' ? `Pack ${option.packId}` : 'Pay-as-you-go'}
+                          {option.kind === 'pack' ? (option.packName ?? `Pack ${option.packId}`)
+                            : option.kind === 'combo' ? option.purchases?.map((p) => `${p.packName} (${p.fromDate} → ${p.toDate})`).join(' + ')
+                            : 'Pay-as-you-go'}
                         </TableCell>
                         <TableCell>
                           <Chip
-                            label={option.kind === 'pack' ? 'Pack' : 'PAYG'}
-                            color={option.kind === 'pack' ? 'primary' : 'secondary'}
+                            label={option.kind === 'pack' ? 'Pack' : option.kind === 'combo' ? 'Combo' : 'PAYG'}
+                            color={option.kind === 'payg' ? 'secondary' : 'primary'}
                             size="small"
                           />
                         </TableCell>
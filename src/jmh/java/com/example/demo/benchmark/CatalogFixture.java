@@ -0,0 +1,94 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.dto.SimulationRequest;
+import com.example.demo.entity.Country;
+import com.example.demo.entity.RoamingPack;
+import com.example.demo.entity.RoamingRate;
+import com.example.demo.service.PricingSnapshot;
+import com.example.demo.service.PricingSnapshotService;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Benchmark'lar için sabit tohumlu sentetik katalog ve seyahat planları.
+ * Aynı parametrelerle her çalıştırmada aynı veri üretilir; sonuçlar karşılaştırılabilir.
+ */
+final class CatalogFixture {
+
+    static final String[] REGIONS = {"Europe", "Asia", "North America", "South America", "Africa", "Middle East"};
+    static final int COUNTRIES_PER_REGION = 20;
+
+    private static final String[] CURRENCIES = {"EUR", "USD"};
+
+    private CatalogFixture() {
+    }
+
+    // Paketlerin yaklaşık %60'ı bölge, %35'i ülke, %5'i Global kapsamlıdır (gerçek katalogdaki gibi
+    // Global bir bölge olarak çözülür ve hiçbir ülkeyi kapsamaz; aday üretiminde elenir)
+    static PricingSnapshot snapshot(int packCount) {
+        Random rnd = new Random(42);
+        List<Country> countries = new ArrayList<>();
+        List<RoamingRate> rates = new ArrayList<>();
+        for (int r = 0; r < REGIONS.length; r++) {
+            for (int i = 0; i < COUNTRIES_PER_REGION; i++) {
+                String code = countryCode(r, i);
+                countries.add(new Country(code, "Country " + code, REGIONS[r]));
+                rates.add(new RoamingRate(code, 0.05 + rnd.nextInt(20) / 100.0, 0.3 + rnd.nextInt(60) / 100.0,
+                        0.1 + rnd.nextInt(20) / 100.0, CURRENCIES[r % CURRENCIES.length]));
+            }
+        }
+
+        List<RoamingPack> packs = new ArrayList<>(packCount);
+        for (int i = 0; i < packCount; i++) {
+            int kind = rnd.nextInt(100);
+            String coverage;
+            String coverageType;
+            if (kind < 60) {
+                coverage = REGIONS[rnd.nextInt(REGIONS.length)];
+                coverageType = "region";
+            } else if (kind < 95) {
+                coverage = countryCode(rnd.nextInt(REGIONS.length), rnd.nextInt(COUNTRIES_PER_REGION));
+                coverageType = "country";
+            } else {
+                coverage = "Global";
+                coverageType = "region";
+            }
+            int dataGb = 1 + rnd.nextInt(30);
+            packs.add(new RoamingPack(1_000_000L + i, "Pack " + i, coverage, coverageType,
+                    dataGb, 10 * (1 + rnd.nextInt(30)), 10 * (1 + rnd.nextInt(20)),
+                    Math.round((5 + dataGb * (1.5 + rnd.nextDouble())) * 10) / 10.0,
+                    new int[]{3, 7, 10, 14, 30}[rnd.nextInt(5)], CURRENCIES[rnd.nextInt(CURRENCIES.length)]));
+        }
+        return PricingSnapshot.of(1L, countries, rates, packs);
+    }
+
+    // Ardışık bacaklar: her bacak 1-4 gün, ülkeler bölgelere dağılır
+    static SimulationRequest itinerary(int legs) {
+        Random rnd = new Random(7L * legs);
+        List<SimulationRequest.Leg> trips = new ArrayList<>(legs);
+        LocalDate day = LocalDate.of(2025, 6, 1);
+        for (int i = 0; i < legs; i++) {
+            int length = 1 + rnd.nextInt(4);
+            trips.add(new SimulationRequest.Leg(
+                    countryCode(rnd.nextInt(REGIONS.length), rnd.nextInt(COUNTRIES_PER_REGION)),
+                    day, day.plusDays(length - 1)));
+            day = day.plusDays(length);
+        }
+        return new SimulationRequest(null, trips, new SimulationRequest.UsageProfileDto(800, 20, 5));
+    }
+
+    static String countryCode(int region, int index) {
+        return String.valueOf((char) ('A' + region)) + (char) ('A' + index);
+    }
+
+    // Veritabanı olmadan her zaman aynı snapshot'ı dönen servis
+    static PricingSnapshotService fixedSnapshotService(PricingSnapshot snapshot) {
+        return new PricingSnapshotService(null, null, null, null) {
+            @Override
+            public PricingSnapshot current() {
+                return snapshot;
+            }
+        };
+    }
+}
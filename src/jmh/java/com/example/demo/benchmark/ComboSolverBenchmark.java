@@ -0,0 +1,50 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.dto.SimulationRequest;
+import com.example.demo.service.ComboSolver;
+import com.example.demo.service.PricingSnapshot;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Paket kombinasyonu araması tek başına. "budget" application.properties'teki varsayılan
+ * sınırlarla (değerlendirme + süre bütçesi), "exhaustive" sınırsız çalışır; ikisi arasındaki fark
+ * büyük kataloglarda bütçenin ne kadar arama kestiğini gösterir.
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ComboSolverBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    int packs;
+
+    @Param({"1", "5", "30"})
+    int legs;
+
+    @Param({"budget", "exhaustive"})
+    String limits;
+
+    PricingSnapshot snapshot;
+    SimulationRequest request;
+    ComboSolver.Limits solverLimits;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        snapshot = CatalogFixture.snapshot(packs);
+        request = CatalogFixture.itinerary(legs);
+        solverLimits = "budget".equals(limits)
+                ? ComboSolver.Limits.DEFAULT
+                : new ComboSolver.Limits(true, Integer.MAX_VALUE, Long.MAX_VALUE, Duration.ofMinutes(1));
+    }
+
+    @Benchmark
+    public ComboSolver.Plan solve() {
+        return ComboSolver.solve(request, snapshot, solverLimits);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.dto.SimulationRequest;
+import com.example.demo.entity.RoamingPack;
+import com.example.demo.entity.RoamingRate;
+import com.example.demo.service.CoverageIndex;
+import com.example.demo.service.Itinerary;
+import com.example.demo.service.PricingEngine;
+import com.example.demo.service.PricingSnapshot;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.Math.ceil;
+import static java.lang.Math.max;
+
+/**
+ * Tüm paketlerin değerlendirilmesi, iki şekilde:
+ * perPackRateReduction eski döngüdür (her pakette ortalama PAYG oranları ülke haritasından yeniden
+ * hesaplanır), precomputedItinerary ise itinerary'yi bir kez hazırlayıp PricingEngine.packCost çağırır.
+ * İkisinin oranı teklif başına kazançtır.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ItineraryBenchmark {
+
+    @Param({"1000", "100000"})
+    int packs;
+
+    @Param({"1", "5", "30"})
+    int legs;
+
+    PricingSnapshot snapshot;
+    SimulationRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        snapshot = CatalogFixture.snapshot(packs);
+        request = CatalogFixture.itinerary(legs);
+    }
+
+    @Benchmark
+    public double precomputedItinerary() {
+        Itinerary it = Itinerary.of(request, snapshot);
+        double sum = it.paygCost();
+        for (int pi = 0; pi < packs; pi++) sum += PricingEngine.packCost(snapshot, pi, it);
+        return sum;
+    }
+
+    @Benchmark
+    public double perPackRateReduction() {
+        Map<String, Integer> countryDayMap = new HashMap<>();
+        request.trips().forEach(l -> countryDayMap.merge(l.countryCode(), PricingEngine.countDaysInclusive(l), Integer::sum));
+        int totalDays = countryDayMap.values().stream().mapToInt(Integer::intValue).sum();
+        double needGb = (request.profile().avgDailyMb() * totalDays) / 1024.0;
+        int needMin = request.profile().avgDailyMin() * totalDays;
+        int needSms = request.profile().avgDailySms() * totalDays;
+        Map<String, RoamingRate> rates = snapshot.rates();
+        List<RoamingPack> packList = snapshot.packs();
+        CoverageIndex coverage = snapshot.coverage();
+
+        double sum = 0;
+        for (int pi = 0; pi < packs; pi++) {
+            RoamingPack p = packList.get(pi);
+            int coveredDays = 0;
+            for (var e : countryDayMap.entrySet()) {
+                if (coverage.covers(pi, coverage.countryBit(e.getKey()))) coveredDays += e.getValue();
+            }
+            int nPacks = (int) ceil(totalDays / (double) p.getValidityDays());
+            double base = p.getPrice() * nPacks;
+            double coveredShare = coveredDays / (double) totalDays;
+            double avgDataPerMb = 0, avgVoicePerMin = 0, avgSmsPerMsg = 0;
+            for (var e : countryDayMap.entrySet()) {
+                double s = e.getValue() / (double) totalDays;
+                var rr = rates.get(e.getKey());
+                if (rr == null) continue;
+                avgDataPerMb += rr.getDataPerMb() * s;
+                avgVoicePerMin += rr.getVoicePerMin() * s;
+                avgSmsPerMsg += rr.getSmsPerMsg() * s;
+            }
+            double overGb = max(0.0, needGb - nPacks * p.getDataGb());
+            double overMin = max(0.0, needMin - nPacks * p.getVoiceMin());
+            double overSms = max(0.0, needSms - nPacks * p.getSms());
+            double uncoveredShare = 1.0 - coveredShare;
+            double uncoveredCost = (needGb * 1024 * avgDataPerMb * uncoveredShare)
+                    + (needMin * avgVoicePerMin * uncoveredShare)
+                    + (needSms * avgSmsPerMsg * uncoveredShare);
+            double overCost = (overGb * 1024 * avgDataPerMb) + (overMin * avgVoicePerMin) + (overSms * avgSmsPerMsg);
+            sum += base + overCost + uncoveredCost;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.demo.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Çalışan bir sunucuya karşı basit kapalı döngü yük testi: her sanal istemci bir önceki yanıtı
+ * aldıktan sonra yeni istek gönderir. Sunucuyu spring.threads.virtual.enabled=false ve true ile
+ * ayrı ayrı başlatıp aynı parametrelerle çalıştırarak iki mod karşılaştırılır.
+ * <p>
+ * Argümanlar: --url http://localhost:8000 --path /api/simulate,/api/recommendation
+ * --concurrency 500 --duration 30 --warmup 5
+ */
+public final class LoadTest {
+
+    private static final String BODY = """
+            {"userId":1001,"trips":[
+              {"countryCode":"DE","startDate":"2025-08-20","endDate":"2025-08-25"},
+              {"countryCode":"FR","startDate":"2025-08-26","endDate":"2025-08-30"}],
+             "profile":{"avgDailyMb":600,"avgDailyMin":10,"avgDailySms":2}}""";
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = parse(args);
+        String url = opts.getOrDefault("url", "http://localhost:8000");
+        List<String> paths = List.of(opts.getOrDefault("path", "/api/simulate,/api/recommendation").split(","));
+        int concurrency = Integer.parseInt(opts.getOrDefault("concurrency", "500"));
+        Duration duration = Duration.ofSeconds(Long.parseLong(opts.getOrDefault("duration", "30")));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(opts.getOrDefault("warmup", "5")));
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        List<HttpRequest> requests = paths.stream()
+                .map(p -> HttpRequest.newBuilder(URI.create(url + p.trim()))
+                        .timeout(Duration.ofSeconds(60))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(BODY))
+                        .build())
+                .toList();
+
+        System.out.printf("Warming up %s for %ds...%n", paths, warmup.toSeconds());
+        run(client, requests, concurrency, warmup);
+        System.out.printf("Measuring %d concurrent clients for %ds...%n", concurrency, duration.toSeconds());
+        Result r = run(client, requests, concurrency, duration);
+
+        System.out.printf("requests=%d errors=%d throughput=%.1f req/s p50=%.1f ms p99=%.1f ms max=%.1f ms%n",
+                r.count, r.errors, r.count / (double) duration.toSeconds(),
+                r.percentile(0.50), r.percentile(0.99), r.percentile(1.0));
+    }
+
+    private record Result(long count, long errors, long[] latenciesNanos) {
+        double percentile(double p) {
+            if (latenciesNanos.length == 0) return 0;
+            int i = (int) Math.min(latenciesNanos.length - 1, Math.ceil(p * latenciesNanos.length) - 1);
+            return latenciesNanos[Math.max(0, i)] / 1_000_000.0;
+        }
+    }
+
+    private static Result run(HttpClient client, List<HttpRequest> requests, int concurrency, Duration duration)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicLong errors = new AtomicLong();
+        List<long[]> perClient = Collections.synchronizedList(new ArrayList<>());
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < concurrency; c++) {
+                int offset = c;
+                clients.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int n = 0;
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest req = requests.get((offset + n) % requests.size());
+                        long started = System.nanoTime();
+                        try {
+                            HttpResponse<Void> res = client.send(req, HttpResponse.BodyHandlers.discarding());
+                            if (res.statusCode() != 200) errors.incrementAndGet();
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        if (n == latencies.length) latencies = Arrays.copyOf(latencies, n * 2);
+                        latencies[n++] = System.nanoTime() - started;
+                    }
+                    perClient.add(Arrays.copyOf(latencies, n));
+                });
+            }
+        }
+
+        long[] all = perClient.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(all.length, errors.get(), all);
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> opts = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            opts.put(args[i].substring(2), args[i + 1]);
+        }
+        return opts;
+    }
+}
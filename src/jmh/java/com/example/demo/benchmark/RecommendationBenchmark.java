@@ -0,0 +1,52 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.dto.RecommendationResponse;
+import com.example.demo.dto.SimulationRequest;
+import com.example.demo.service.ComboSolver;
+import com.example.demo.service.PricingSnapshot;
+import com.example.demo.service.RecommendationService;
+import com.example.demo.service.SimulationLookupService;
+import com.example.demo.service.SimulationLookupTable;
+import com.example.demo.service.SimulationResultCache;
+import com.example.demo.service.SimulationService;
+import com.example.demo.service.TripService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RecommendationService.recommendTop3: simülasyon + ilk 3 seçeneğin etiketlenmesi.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RecommendationBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    int packs;
+
+    @Param({"1", "5", "30"})
+    int legs;
+
+    RecommendationService recommendationService;
+    SimulationRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        PricingSnapshot snapshot = CatalogFixture.snapshot(packs);
+        SimulationService simulationService = new SimulationService(new TripService(null, null),
+                CatalogFixture.fixedSnapshotService(snapshot), new SimulationResultCache(0),
+                ComboSolver.Limits.DEFAULT,
+                new SimulationLookupService(null, SimulationLookupTable.Settings.DISABLED, ComboSolver.Limits.DEFAULT));
+        recommendationService = new RecommendationService(simulationService);
+        request = CatalogFixture.itinerary(legs);
+    }
+
+    @Benchmark
+    public RecommendationResponse recommendTop3() {
+        return recommendationService.recommendTop3(request);
+    }
+}
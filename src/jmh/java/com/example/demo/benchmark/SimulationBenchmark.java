@@ -0,0 +1,51 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.dto.SimulationRequest;
+import com.example.demo.dto.SimulationResponse;
+import com.example.demo.service.ComboSolver;
+import com.example.demo.service.PricingSnapshot;
+import com.example.demo.service.SimulationLookupService;
+import com.example.demo.service.SimulationLookupTable;
+import com.example.demo.service.SimulationResultCache;
+import com.example.demo.service.SimulationService;
+import com.example.demo.service.TripService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SimulationService.simulate sıcak yolu; sonuç önbelleği kapalıdır, her çağrı tam fiyatlama yapar.
+ * Throughput ve SampleTime (p99 için) birlikte raporlanır; ayırma oranı için -prof gc kullanılır.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SimulationBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    int packs;
+
+    @Param({"1", "5", "30"})
+    int legs;
+
+    SimulationService simulationService;
+    SimulationRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        PricingSnapshot snapshot = CatalogFixture.snapshot(packs);
+        simulationService = new SimulationService(new TripService(null, null),
+                CatalogFixture.fixedSnapshotService(snapshot), new SimulationResultCache(0),
+                ComboSolver.Limits.DEFAULT,
+                new SimulationLookupService(null, SimulationLookupTable.Settings.DISABLED, ComboSolver.Limits.DEFAULT));
+        request = CatalogFixture.itinerary(legs);
+    }
+
+    @Benchmark
+    public SimulationResponse simulate() {
+        return simulationService.simulate(request);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.demo.config;
+
+import com.example.demo.service.ComboSolver;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class ComboSolverConfig {
+
+    // Kombinasyon araması teklif başına sınırlıdır; sınıra gelinirse o ana kadarki en iyi plan kullanılır
+    @Bean
+    public ComboSolver.Limits comboLimits(
+            @Value("${simulation.combo.enabled:true}") boolean enabled,
+            @Value("${simulation.combo.max-days:120}") int maxDays,
+            @Value("${simulation.combo.max-evaluations:2000000}") long maxEvaluations,
+            @Value("${simulation.combo.time-budget:PT0.02S}") Duration timeBudget) {
+        if (maxDays < 0 || maxEvaluations < 0 || timeBudget.isNegative()) {
+            throw new IllegalArgumentException("simulation.combo limits must be >= 0");
+        }
+        return new ComboSolver.Limits(enabled, maxDays, maxEvaluations, timeBudget);
+    }
+}
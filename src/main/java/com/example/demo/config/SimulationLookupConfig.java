@@ -0,0 +1,35 @@
+package com.example.demo.config;
+
+import com.example.demo.dto.SimulationRequest;
+import com.example.demo.service.SimulationLookupTable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+public class SimulationLookupConfig {
+
+    // Profil kovaları "mb:dk:sms" listesi; sadece birebir eşleşen profiller tablodan yanıtlanır
+    @Bean
+    public SimulationLookupTable.Settings simulationLookupSettings(
+            @Value("${simulation.lookup.enabled:true}") boolean enabled,
+            @Value("${simulation.lookup.max-days:60}") int maxDays,
+            @Value("${simulation.lookup.max-options:64}") int maxOptions,
+            @Value("${simulation.lookup.profiles:}") List<String> profiles) {
+        if (maxDays < 0 || maxOptions < 1) {
+            throw new IllegalArgumentException("simulation.lookup.max-days must be >= 0 and max-options >= 1");
+        }
+        List<SimulationRequest.UsageProfileDto> buckets = new ArrayList<>();
+        for (String p : profiles) {
+            if (p.isBlank()) continue;
+            String[] parts = p.trim().split(":");
+            if (parts.length != 3) throw new IllegalArgumentException("Invalid lookup profile (mb:min:sms): " + p);
+            buckets.add(new SimulationRequest.UsageProfileDto(
+                    Integer.valueOf(parts[0]), Integer.valueOf(parts[1]), Integer.valueOf(parts[2])));
+        }
+        return new SimulationLookupTable.Settings(enabled, maxDays, maxOptions, List.copyOf(buckets));
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.demo.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Eski gün başına satır tablosunun (trip_days) tek seferlik taşınması. Günler artık trip_segments'te
+ * ardışık aralıklar olarak tutulur; ddl-auto eski tabloyu silmez ve veriyi taşımaz. Açılışta trip_days
+ * varsa her trip'in aynı ülke çiftinde geçen ardışık günleri tek segmente indirilir ve tablo
+ * trip_days_migrated adıyla saklanır, böylece taşıma bir daha çalışmaz. Segmenti olan trip'lere dokunulmaz.
+ * Hata olursa (yetki vb.) transaction geri alınır, loglanır ve bir sonraki açılışta tekrar denenir.
+ */
+@Component
+@Slf4j
+public class TripDaysMigration {
+
+    // Ardışık günler: tarih - sıra numarası bir koşu boyunca sabittir (gaps-and-islands)
+    private static final String COLLAPSE = """
+            INSERT INTO trip_segments (id, trip_id, country_code, from_date, to_date, secondary_country_code)
+            SELECT nextval('trip_segments_seq'), trip_id, country_code1, min(date), max(date), country_code2
+            FROM (SELECT trip_id, date, country_code1, country_code2,
+                         date - (row_number() OVER (PARTITION BY trip_id, country_code1, country_code2
+                                                    ORDER BY date))::int AS run
+                  FROM (SELECT DISTINCT trip_id, date, country_code1, country_code2 FROM trip_days) d
+                  WHERE NOT EXISTS (SELECT 1 FROM trip_segments s WHERE s.trip_id = d.trip_id)) r
+            GROUP BY trip_id, country_code1, country_code2, run""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+
+    public TripDaysMigration(JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             @Value("${trips.legacy-days-migration:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        if (!enabled) return;
+        try {
+            Boolean legacy = jdbcTemplate.queryForObject("SELECT to_regclass('trip_days') IS NOT NULL", Boolean.class);
+            if (!Boolean.TRUE.equals(legacy)) return;
+            Integer segments = transactionTemplate.execute(status -> {
+                int inserted = jdbcTemplate.update(COLLAPSE);
+                jdbcTemplate.execute("ALTER TABLE trip_days RENAME TO trip_days_migrated");
+                return inserted;
+            });
+            log.info("Migrated legacy trip_days into {} trip segments; old table kept as trip_days_migrated", segments);
+        } catch (DataAccessException e) {
+            log.warn("Skipping legacy trip_days migration: {}", e.getMostSpecificCause().getMessage());
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.demo.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * ddl-auto sadece @Table'daki B-tree indeksleri kurar. PostgreSQL'de aktif trip sorgusu
+ * (start_date <= :to AND end_date >= :from) için iki sütunlu GiST indeksi de açılışta denenir;
+ * btree_gist eklentisi kurulamıyorsa (yetki vb.) hata loglanır ve B-tree indeksle devam edilir.
+ */
+@Component
+@Slf4j
+public class TripIndexInitializer {
+
+    private static final List<String> DDL = List.of(
+            "CREATE EXTENSION IF NOT EXISTS btree_gist",
+            "CREATE INDEX IF NOT EXISTS idx_trips_active_gist ON trips USING gist (start_date, end_date)");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+
+    public TripIndexInitializer(JdbcTemplate jdbcTemplate,
+                                @Value("${trips.active-index.gist-ddl:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndexes() {
+        if (!enabled) return;
+        for (String sql : DDL) {
+            try {
+                jdbcTemplate.execute(sql);
+            } catch (DataAccessException e) {
+                log.warn("Skipping optional trip index DDL '{}': {}", sql, e.getMostSpecificCause().getMessage());
+                return;
+            }
+        }
+        log.info("GiST index on trips(start_date, end_date) is in place");
+    }
+}
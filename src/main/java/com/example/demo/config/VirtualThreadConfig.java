@@ -0,0 +1,40 @@
+package com.example.demo.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * spring.threads.virtual.enabled=true ile Tomcat istekleri sanal thread'lerde çalışır.
+ * Bu durumda veritabanı erişimi, havuz boyutuna eşit izinli bir semaphore ile sınırlanır
+ * (db.concurrency-limit.enabled ile ayrıca açılıp kapatılabilir).
+ */
+@Configuration
+@ConditionalOnExpression("${db.concurrency-limit.enabled:${spring.threads.virtual.enabled:false}}")
+@Slf4j
+public class VirtualThreadConfig {
+
+    // BeanPostProcessor erken oluşturulur; static olmalı ki bu sınıfın diğer bean'lerini etkilemesin
+    @Bean
+    public static BeanPostProcessor concurrencyLimitedDataSourcePostProcessor(
+            @Value("${db.concurrency-limit.permits:0}") int permits,
+            @Value("${db.concurrency-limit.acquire-timeout:PT30S}") Duration acquireTimeout) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // Sadece fiziksel havuzlar sarılır (replika yönlendirmesinde birincil ve replika ayrı ayrı)
+                if (!(bean instanceof HikariDataSource hikari)) return bean;
+                // 0: havuzun en fazla bağlantı sayısı kadar izin
+                int size = permits > 0 ? permits : hikari.getMaximumPoolSize();
+                log.info("Database access for '{}' limited to {} concurrent connections", beanName, size);
+                return new ConcurrencyLimitedDataSource(hikari, size, acquireTimeout);
+            }
+        };
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.demo.controller;
+
+import com.example.demo.service.BulkLoadService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/admin/bulk-load")
+@RequiredArgsConstructor
+public class BulkLoadController {
+
+    private final BulkLoadService bulkLoadService;
+
+    // Gövde ham CSV'dir (başlık satırı dahil); bellekte tutulmadan doğrudan yükleyiciye akıtılır
+    @PostMapping(value = "/{table}", consumes = {"text/csv", "application/octet-stream", "text/plain"})
+    public BulkLoadService.BulkLoadResult load(@PathVariable String table,
+                                               @RequestParam(defaultValue = "copy") String mode,
+                                               HttpServletRequest request) throws IOException {
+        try (InputStream body = request.getInputStream()) {
+            return bulkLoadService.load(BulkLoadService.Table.fromName(table), body, BulkLoadService.parseMode(mode));
+        }
+    }
+
+    // Sunucudaki bulk-load.import-dir altındaki bir dosyayı yükler (çok GB'lık faturalama dökümleri)
+    @PostMapping("/{table}/file")
+    public BulkLoadService.BulkLoadResult loadFile(@PathVariable String table,
+                                                   @RequestParam String name,
+                                                   @RequestParam(defaultValue = "batch") String mode) {
+        return bulkLoadService.loadFile(BulkLoadService.Table.fromName(table), name, BulkLoadService.parseMode(mode));
+    }
+}
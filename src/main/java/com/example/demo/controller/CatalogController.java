@@ -1,8 +1,12 @@
 package com.example.demo.controller;
 
-import com.example.demo.dto.CatalogResponse;
 import com.example.demo.service.CatalogService;
+import com.example.demo.service.RefreshableCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -25,8 +29,71 @@ public class CatalogController {
         return response;
     }
 
+    // Önceden serileştirilmiş katalog; If-None-Match eşleşirse 304, istemci kabul ediyorsa gzip byte'ları
     @GetMapping
-    public CatalogResponse getCatalog() {
-        return catalogService.getCatalog();
+    public ResponseEntity<byte[]> getCatalog(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        CatalogService.CatalogPayload payload = catalogService.getCatalogPayload();
+        boolean gzip = acceptsGzip(acceptEncoding);
+        String etag = gzip ? payload.gzipEtag() : payload.etag();
+
+        if (matches(ifNoneMatch, payload)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        var response = ResponseEntity.ok()
+                .eTag(etag)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(payload.gzip());
+        }
+        return response.body(payload.json());
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            if (tokens[0].trim().equalsIgnoreCase("gzip")) {
+                return qValue(tokens) > 0;
+            }
+        }
+        return false;
+    }
+
+    // q=0, q=0.0, q=0.000 gzip'i reddeder; q yoksa 1, okunamayan değer ise reddetmek sayılır
+    private static double qValue(String[] tokens) {
+        for (int i = 1; i < tokens.length; i++) {
+            String param = tokens[i].replace(" ", "");
+            if (param.regionMatches(true, 0, "q=", 0, 2)) {
+                try {
+                    return Double.parseDouble(param.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    // If-None-Match zayıf karşılaştırma kullanır; iki gösterimin etiketi de aynı veri versiyonunu işaret eder
+    private static boolean matches(String ifNoneMatch, CatalogService.CatalogPayload payload) {
+        if (ifNoneMatch == null) return false;
+        for (String tag : ifNoneMatch.split(",")) {
+            String t = tag.trim();
+            if (t.startsWith("W/")) t = t.substring(2);
+            if (t.equals("*") || t.equals(payload.etag()) || t.equals(payload.gzipEtag())) return true;
+        }
+        return false;
+    }
+
+    @GetMapping("/cache-stats")
+    public RefreshableCache.Stats cacheStats() {
+        return catalogService.cacheStats();
     }
 }
@@ -0,0 +1,42 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.QuoteDelta;
+import com.example.demo.dto.QuoteResponse;
+import com.example.demo.dto.SimulationRequest;
+import com.example.demo.service.QuoteSessionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+// Etkileşimli planlama: teklif bir kez oluşturulur, sonra sadece değişiklikler gönderilir
+@RestController
+@RequestMapping("/api/quotes")
+@RequiredArgsConstructor
+@CrossOrigin
+public class QuoteController {
+
+    private final QuoteSessionService quoteSessionService;
+
+    @PostMapping
+    public QuoteResponse create(@RequestBody SimulationRequest req) {
+        return quoteSessionService.create(req);
+    }
+
+    @GetMapping("/{quoteId}")
+    public QuoteResponse get(@PathVariable String quoteId) {
+        return quoteSessionService.get(quoteId);
+    }
+
+    @PatchMapping("/{quoteId}")
+    public QuoteResponse apply(@PathVariable String quoteId, @RequestBody List<QuoteDelta> deltas) {
+        return quoteSessionService.apply(quoteId, deltas);
+    }
+
+    @DeleteMapping("/{quoteId}")
+    public ResponseEntity<Void> close(@PathVariable String quoteId) {
+        quoteSessionService.close(quoteId);
+        return ResponseEntity.noContent().build();
+    }
+}
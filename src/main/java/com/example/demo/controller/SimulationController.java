@@ -2,11 +2,25 @@ package com.example.demo.controller;
 
 import com.example.demo.dto.SimulationRequest;
 import com.example.demo.dto.SimulationResponse;
+import com.example.demo.dto.SweepRequest;
+import com.example.demo.dto.SweepResponse;
+import com.example.demo.service.BatchSimulationService;
+import com.example.demo.service.QuoteExportService;
+import com.example.demo.service.SensitivitySweepService;
+import com.example.demo.service.SimulationResultCache;
 import com.example.demo.service.SimulationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -15,7 +29,14 @@ import java.util.Map;
 @CrossOrigin
 public class SimulationController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final SimulationService simulationService;
+    private final BatchSimulationService batchSimulationService;
+    private final QuoteExportService quoteExportService;
+    private final SensitivitySweepService sensitivitySweepService;
+    private final SimulationResultCache simulationResultCache;
+    private final ObjectMapper objectMapper;
 
     @GetMapping("/test")
     public Map<String, Object> test() {
@@ -26,8 +47,63 @@ public class SimulationController {
         return response;
     }
 
+    // limit (gövdede veya ?limit=) verilirse sadece en iyi N seçenek döner; yoksa tüm liste (UI)
     @PostMapping
-    public SimulationResponse simulate(@RequestBody SimulationRequest req) {
-        return simulationService.simulate(req);
+    public SimulationResponse simulate(@RequestBody SimulationRequest req,
+                                       @RequestParam(required = false) Integer limit) {
+        return simulationService.simulate(limit != null ? req.withLimit(limit) : req);
+    }
+
+    // Gün gün fiyatlama: çakışan bacaklar çok ülkeli gün olarak, her alımın kota/bitişi izlenerek
+    @PostMapping("/timeline")
+    public SimulationResponse simulateTimeline(@RequestBody SimulationRequest req,
+                                               @RequestParam(required = false) Integer limit) {
+        return simulationService.simulateTimeline(limit != null ? req.withLimit(limit) : req);
+    }
+
+    // Profil ızgarası: her noktada en ucuz seçenek ve en ucuz seçeneğin değiştiği kullanım değerleri
+    @PostMapping("/sweep")
+    public SweepResponse sweep(@RequestBody SweepRequest req) {
+        return sensitivitySweepService.sweep(req);
+    }
+
+    @GetMapping("/cache-stats")
+    public SimulationResultCache.Stats cacheStats() {
+        return simulationResultCache.stats();
+    }
+
+    // Her satır bir BatchSimulationItem (NDJSON); sonuçlar hazır oldukça yazılır
+    @PostMapping("/batch")
+    public ResponseEntity<StreamingResponseBody> simulateBatch(@RequestBody List<SimulationRequest> requests) {
+        batchSimulationService.validate(requests);
+        StreamingResponseBody body = out -> batchSimulationService.simulateBatch(requests, item -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(item));
+                out.write('\n');
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    // Tüm kullanıcıların profilleri verilen rota şablonu ile fiyatlanır (NDJSON, sabit bellek)
+    @PostMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportQuotes(@RequestBody List<SimulationRequest.Leg> trips) {
+        quoteExportService.validate(trips);
+        StreamingResponseBody body = out -> {
+            var buffered = new BufferedOutputStream(out, 64 * 1024);
+            quoteExportService.exportAll(trips, quote -> {
+                try {
+                    buffered.write(objectMapper.writeValueAsBytes(quote));
+                    buffered.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            buffered.flush();
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
     }
 }
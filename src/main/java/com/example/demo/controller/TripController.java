@@ -1,12 +1,23 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.ActiveTrip;
+import com.example.demo.dto.SimulationRequest;
+import com.example.demo.dto.SimulationResponse;
 import com.example.demo.entity.Trip;
+import com.example.demo.entity.TripDay;
+import com.example.demo.repository.TripDayRepository;
 import com.example.demo.repository.TripRepository;
+import com.example.demo.service.ActiveTripService;
+import com.example.demo.service.SimulationService;
+import com.example.demo.service.TimelinePricer;
 import com.example.demo.service.TripService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/trips")
@@ -15,6 +26,9 @@ public class TripController {
 
     private final TripService tripService;
     private final TripRepository tripRepository;
+    private final TripDayRepository tripDayRepository;
+    private final ActiveTripService activeTripService;
+    private final SimulationService simulationService;
 
     @PostMapping
     public Trip create(@RequestBody Trip trip) {
@@ -26,6 +40,43 @@ public class TripController {
         return tripRepository.findByUserId(userId);
     }
 
+    // Günlük görünüm segmentlerden istek anında üretilir
+    @GetMapping("/{tripId}/days")
+    public List<TripDay> days(@PathVariable Long tripId) {
+        return tripDayRepository.findByTrip_TripId(tripId);
+    }
+
+    // Kayıtlı trip'in günleri (countryCode2/multiCountry dahil) gün gün fiyatlanır
+    @GetMapping("/{tripId}/quote")
+    public SimulationResponse quote(@PathVariable Long tripId,
+                                    @RequestParam int avgDailyMb,
+                                    @RequestParam int avgDailyMin,
+                                    @RequestParam int avgDailySms,
+                                    @RequestParam(defaultValue = "0") int limit) {
+        var days = TimelinePricer.fromTripDays(tripDayRepository.findByTrip_TripId(tripId));
+        if (days.isEmpty()) throw new IllegalArgumentException("Trip not found or has no days: " + tripId);
+        return simulationService.simulateTimeline(days,
+                new SimulationRequest.UsageProfileDto(avgDailyMb, avgDailyMin, avgDailySms), limit);
+    }
+
+    // [from, to] aralığında yurt dışında olan trip'ler; tarih verilmezse bugün
+    @GetMapping("/active")
+    public List<ActiveTrip> active(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate f = from != null ? from : LocalDate.now();
+        return activeTripService.activeTrips(f, to != null ? to : f);
+    }
+
+    // Ülke → aralıkta o ülkede olan farklı kullanıcı sayısı
+    @GetMapping("/active/occupancy")
+    public Map<String, Integer> occupancy(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                          @RequestParam(required = false) String country) {
+        LocalDate f = from != null ? from : LocalDate.now();
+        Map<String, Integer> counts = activeTripService.occupancy(f, to != null ? to : f);
+        return country == null ? counts : Map.of(country, counts.getOrDefault(country, 0));
+    }
+
     @GetMapping
     public List<Trip> all() {
         return tripRepository.findAll();
@@ -0,0 +1,13 @@
+package com.example.demo.dto;
+
+import java.time.LocalDate;
+
+// Aktif trip sorgularının hafif projeksiyonu (segmentler/günler yüklenmez)
+public record ActiveTrip(
+        Long tripId,
+        Long userId,
+        String countryCode1,
+        String countryCode2, // opsiyonel
+        LocalDate startDate,
+        LocalDate endDate) {
+}
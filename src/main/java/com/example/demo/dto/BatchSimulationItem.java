@@ -0,0 +1,7 @@
+package com.example.demo.dto;
+
+public record BatchSimulationItem(
+        int index,                 // istekteki sıra
+        SimulationResponse result, // hata varsa null
+        String error) {            // başarılıysa null
+}
@@ -0,0 +1,8 @@
+package com.example.demo.dto;
+
+public record ProfileQuote(
+        Long userId,
+        int days,
+        SimulationResponse.Option best, // en ucuz seçenek
+        int optionCount) {
+}
@@ -0,0 +1,9 @@
+package com.example.demo.dto;
+
+// Açık bir teklife uygulanan küçük değişiklik
+public record QuoteDelta(
+        String op, // "addLeg" | "updateLeg" | "removeLeg" | "setProfile"
+        Integer index, // updateLeg/removeLeg: bacak sırası (oluşturma/ekleme sırasıyla)
+        SimulationRequest.Leg leg, // addLeg/updateLeg
+        SimulationRequest.UsageProfileDto profile) { // setProfile
+}
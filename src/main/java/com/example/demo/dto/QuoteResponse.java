@@ -0,0 +1,11 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+public record QuoteResponse(
+        String quoteId,
+        long revision, // her başarılı değişiklikte bir artar
+        List<SimulationRequest.Leg> trips,
+        int recomputedPacks, // son değişiklikte kısmi sonucu güncellenen aday paket sayısı (tam kurulumda tüm adaylar)
+        SimulationResponse result) {
+}
@@ -6,10 +6,24 @@ import java.util.List;
 public record SimulationRequest(
         Long userId,
         List<Leg> trips, // çok ülke desteği
-        UsageProfileDto profile) {
+        UsageProfileDto profile,
+        Integer limit) { // null/0: tüm seçenekler (UI), >0: sadece en iyi N seçenek
     public record Leg(String countryCode, LocalDate startDate, LocalDate endDate) {
     }
 
     public record UsageProfileDto(Integer avgDailyMb, Integer avgDailyMin, Integer avgDailySms) {
     }
+
+    public SimulationRequest(Long userId, List<Leg> trips, UsageProfileDto profile) {
+        this(userId, trips, profile, null);
+    }
+
+    public SimulationRequest withLimit(int limit) {
+        return new SimulationRequest(userId, trips, profile, limit);
+    }
+
+    // 0 = sınırsız
+    public int limitOrAll() {
+        return limit == null ? 0 : limit;
+    }
 }
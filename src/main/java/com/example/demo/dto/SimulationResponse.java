@@ -1,5 +1,6 @@
 package com.example.demo.dto;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public record SimulationResponse(
@@ -13,16 +14,32 @@ public record SimulationResponse(
     }
 
     public record Option(
-            String kind, // "pack" | "payg"
+            String kind, // "pack" | "payg" | "combo"
             Long packId,
+            String packName, // paket seçeneklerinde snapshot'tan çözülmüş ad; payg için null
             int nPacks,
             double totalCost,
             String currency,
             boolean coverageHit,
             boolean validityOk,
-            Overflow overflow // null olabilir
+            Overflow overflow, // null olabilir
+            List<Purchase> purchases // sadece combo: tarih sırasıyla alınacak paketler
     ) {
+        public Option(String kind, Long packId, String packName, int nPacks, double totalCost, String currency,
+                      boolean coverageHit, boolean validityOk, Overflow overflow) {
+            this(kind, packId, packName, nPacks, totalCost, currency, coverageHit, validityOk, overflow, null);
+        }
+
+        public Option(String kind, Long packId, int nPacks, double totalCost, String currency,
+                      boolean coverageHit, boolean validityOk, Overflow overflow) {
+            this(kind, packId, null, nPacks, totalCost, currency, coverageHit, validityOk, overflow, null);
+        }
+
         public record Overflow(double overMbCost, double overMinCost, double overSmsCost) {
         }
+
+        // Bir paketin fromDate..toDate günlerini karşılayan tek alımı; cost kapsanmayan günlerin PAYG'sini de içerir
+        public record Purchase(Long packId, String packName, LocalDate fromDate, LocalDate toDate, double cost) {
+        }
     }
 }
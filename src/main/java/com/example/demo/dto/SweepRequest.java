@@ -0,0 +1,15 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+public record SweepRequest(
+        List<SimulationRequest.Leg> trips, // ülke/gün dağılımı ve trip süresi
+        Range avgDailyMb,
+        Range avgDailyMin,
+        Range avgDailySms,
+        SimulationRequest.UsageProfileDto baseline) { // breakpoint'lerde diğer eksenlerin değeri; null: aralık başları
+
+    // from..to (dahil), step adımlarla; step null ise tek değer (from)
+    public record Range(Integer from, Integer to, Integer step) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+public record SweepResponse(
+        int days,
+        List<Point> surface, // mb, min, sms sırasıyla iç içe (sms en içte)
+        List<Breakpoint> breakpoints) {
+
+    public record Choice(String kind, Long packId, String packName) { // kind: "pack" | "payg"
+    }
+
+    public record Point(int avgDailyMb, int avgDailyMin, int avgDailySms, Choice best, double totalCost) {
+    }
+
+    // axis değeri "at" noktasını geçince en ucuz seçenek before'dan after'a değişir (diğer eksenler baseline'da)
+    public record Breakpoint(String axis, double at, Choice before, Choice after) {
+    }
+}
@@ -4,13 +4,21 @@ import jakarta.persistence.*;
 import lombok.Data;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Data
-@Table(name = "trips")
+// Aktif trip sorguları (end_date >= :from AND start_date <= :to): geçmiş trip'lerin çoğu
+// end_date ile elendiği için sütun sırası end_date, start_date
+@Table(name = "trips", indexes = {
+        @Index(name = "idx_trips_end_start", columnList = "end_date, start_date")
+})
 public class Trip {
+    // Pooled sequence: Hibernate her nextval ile 50 id ayırır, insert'ler batch'lenebilir
     @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "trips_seq")
+    @SequenceGenerator(name = "trips_seq", sequenceName = "trips_seq", allocationSize = 50)
     @Column(name = "trip_id")
     private Long tripId;
 
@@ -34,9 +42,10 @@ public class Trip {
     @Column(name = "end_date", nullable = false)
     private LocalDate endDate;
 
-    // Trip ↔ TripDay ilişki (bir Trip’in birden fazla günü olabilir)
+    // Trip ↔ TripSegment ilişki: gün başına satır yerine aynı ülkedeki ardışık günler tek segment
     @OneToMany(mappedBy = "trip", cascade = CascadeType.ALL, orphanRemoval = true)
-    private List<TripDay> tripDays;
+    @OrderBy("fromDate ASC")
+    private List<TripSegment> segments;
 
     // Default constructor for JPA
     public Trip() {
@@ -58,4 +67,13 @@ public class Trip {
         this.startDate = startDate;
         this.endDate = endDate;
     }
+
+    // Günlük görünüm segmentlerden üretilir; JSON'a yazılmaz (getter değil)
+    public List<TripDay> days() {
+        List<TripDay> days = new ArrayList<>();
+        if (segments != null) {
+            for (TripSegment s : segments) days.addAll(s.days());
+        }
+        return days;
+    }
 }
@@ -0,0 +1,85 @@
+package com.example.demo.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bir trip'in aynı ülke(ler)de geçen ardışık günleri: [fromDate, toDate] kapalı aralığı.
+ * Gün başına satır tutulmaz; günlük görünüm (TripDay) gerektiğinde buradan üretilir.
+ */
+@Entity
+@Data
+@Table(name = "trip_segments", indexes = {
+        @Index(name = "idx_trip_segments_trip", columnList = "trip_id"),
+        @Index(name = "idx_trip_segments_range", columnList = "from_date, to_date"),
+        @Index(name = "idx_trip_segments_country", columnList = "country_code")
+})
+public class TripSegment {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "trip_segments_seq")
+    @SequenceGenerator(name = "trip_segments_seq", sequenceName = "trip_segments_seq", allocationSize = 50)
+    @Column(name = "id")
+    private Long id;
+
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "trip_id", nullable = false)
+    private Trip trip;
+
+    @Column(name = "country_code", nullable = false)
+    private String countryCode;
+
+    @Column(name = "from_date", nullable = false)
+    private LocalDate fromDate;
+
+    @Column(name = "to_date", nullable = false)
+    private LocalDate toDate;
+
+    // Aynı günlerde geçilen ikinci ülke (opsiyonel)
+    @Column(name = "secondary_country_code")
+    private String secondaryCountryCode;
+
+    // Default constructor for JPA
+    public TripSegment() {
+    }
+
+    public TripSegment(Trip trip, String countryCode, LocalDate fromDate, LocalDate toDate, String secondaryCountryCode) {
+        this.trip = trip;
+        this.countryCode = countryCode;
+        this.fromDate = fromDate;
+        this.toDate = toDate;
+        this.secondaryCountryCode = secondaryCountryCode;
+    }
+
+    public int dayCount() {
+        return (int) (ChronoUnit.DAYS.between(fromDate, toDate) + 1);
+    }
+
+    public boolean covers(LocalDate date) {
+        return !date.isBefore(fromDate) && !date.isAfter(toDate);
+    }
+
+    public TripDay dayAt(LocalDate date) {
+        if (!covers(date)) throw new IllegalArgumentException(date + " is outside segment " + fromDate + ".." + toDate);
+        return new TripDay(trip, date, countryCode, secondaryCountryCode, secondaryCountryCode != null);
+    }
+
+    // Segmentin günlük görünümü; sadece istendiğinde üretilir
+    public List<TripDay> days() {
+        List<TripDay> days = new ArrayList<>(Math.max(0, dayCount()));
+        for (LocalDate d = fromDate; !d.isAfter(toDate); d = d.plusDays(1)) {
+            days.add(dayAt(d));
+        }
+        return days;
+    }
+}
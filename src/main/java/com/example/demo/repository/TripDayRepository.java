@@ -1,21 +1,48 @@
 package com.example.demo.repository;
 
 import com.example.demo.entity.TripDay;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.stereotype.Repository;
+import com.example.demo.entity.TripSegment;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
 
-@Repository
-public interface TripDayRepository extends JpaRepository<TripDay, Long> {
+/**
+ * Günler artık satır olarak saklanmıyor; sorgular trip_segments üzerinde aralık koşuluyla
+ * çalışır ve eşleşen segmentlerden TripDay görünümleri üretilir.
+ */
+@org.springframework.stereotype.Repository
+public interface TripDayRepository extends Repository<TripSegment, Long> {
+
+    @Transactional(readOnly = true)
+    List<TripSegment> findByTrip_TripIdOrderByFromDateAsc(Long tripId);
+
+    @Transactional(readOnly = true)
+    @Query("select s from TripSegment s where s.fromDate <= :date and s.toDate >= :date")
+    List<TripSegment> findSegmentsCovering(@Param("date") LocalDate date);
+
+    @Transactional(readOnly = true)
+    List<TripSegment> findByCountryCodeOrderByFromDateAsc(String countryCode);
+
     // Bir trip’in tüm günleri
-    List<TripDay> findByTrip_TripId(Long tripId);
+    default List<TripDay> findByTrip_TripId(Long tripId) {
+        return expand(findByTrip_TripIdOrderByFromDateAsc(tripId));
+    }
 
     // Belirli tarihteki günler (çok ülkeli gün kontrolü vs.)
-    List<TripDay> findByDate(LocalDate date);
+    default List<TripDay> findByDate(LocalDate date) {
+        return findSegmentsCovering(date).stream().map(s -> s.dayAt(date)).toList();
+    }
 
     // Kullanışlı: belirli ülke koduna ait günler
-    List<TripDay> findByCountryCode1(String countryCode1);
-}
+    default List<TripDay> findByCountryCode1(String countryCode1) {
+        return expand(findByCountryCodeOrderByFromDateAsc(countryCode1));
+    }
 
+    private static List<TripDay> expand(List<TripSegment> segments) {
+        return segments.stream().flatMap(s -> s.days().stream()).toList();
+    }
+}
@@ -1,16 +1,30 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.ActiveTrip;
 import com.example.demo.entity.Trip;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
 
 @Repository
 public interface TripRepository extends JpaRepository<Trip, Long> {
+    // Okuma sorguları read-only: replika yönlendirmesi açıksa okuma replikasına gider
+    @Transactional(readOnly = true)
     List<Trip> findByUserId(Long userId);
+
+    @Transactional(readOnly = true)
     List<Trip> findByStartDateLessThanEqualAndEndDateGreaterThanEqual(
             LocalDate endInclusive, LocalDate startInclusive);
+
+    // [from, to] ile kesişen trip'ler; sadece indekste tutulan sütunlar okunur
+    @Transactional(readOnly = true)
+    @Query("select new com.example.demo.dto.ActiveTrip(t.tripId, t.userId, t.countryCode1, t.countryCode2, t.startDate, t.endDate) "
+            + "from Trip t where t.startDate <= :to and t.endDate >= :from")
+    List<ActiveTrip> findActiveTrips(@Param("from") LocalDate from, @Param("to") LocalDate to);
 }
 
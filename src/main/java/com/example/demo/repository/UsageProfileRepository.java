@@ -1,12 +1,20 @@
 package com.example.demo.repository;
 
 import com.example.demo.entity.UsageProfile;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
 
 @Repository
 public interface UsageProfileRepository extends JpaRepository<UsageProfile, Long> {
     default UsageProfile getOrThrow(Long userId) {
         return findById(userId).orElseThrow(() -> new IllegalArgumentException("UsageProfile not found: " + userId));
     }
+
+    // Keyset sayfalama: son görülen user_id'den sonraki kayıtlar (OFFSET kullanılmaz)
+    @Transactional(readOnly = true)
+    List<UsageProfile> findByUserIdGreaterThanOrderByUserIdAsc(Long afterUserId, Limit limit);
 }
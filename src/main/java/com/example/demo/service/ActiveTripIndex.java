@@ -0,0 +1,101 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ActiveTrip;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Bir tarih penceresiyle kesişen trip'ler üzerinde değişmez aralık ağacı.
+ * Trip'ler başlangıç gününe göre sıralı dizilerde tutulur; dizinin ortası kök olacak şekilde
+ * örtük dengeli bir ağaç kurulur ve her düğüm alt ağacındaki en büyük bitiş gününü saklar.
+ * Kesişim sorgusu O(log n + k): bitişi aralıktan önce kalan ve başlangıcı aralıktan sonra
+ * gelen alt ağaçlara hiç inilmez.
+ */
+public final class ActiveTripIndex {
+
+    private final LocalDate windowFrom;
+    private final LocalDate windowTo;
+    private final ActiveTrip[] trips;
+    private final long[] start;  // epoch day, artan sırada
+    private final long[] end;
+    private final long[] maxEnd; // [lo, hi) alt ağacındaki en büyük end, kök mid = (lo + hi) >>> 1
+
+    private ActiveTripIndex(LocalDate windowFrom, LocalDate windowTo, ActiveTrip[] trips) {
+        this.windowFrom = windowFrom;
+        this.windowTo = windowTo;
+        this.trips = trips;
+        this.start = new long[trips.length];
+        this.end = new long[trips.length];
+        this.maxEnd = new long[trips.length];
+        for (int i = 0; i < trips.length; i++) {
+            start[i] = trips[i].startDate().toEpochDay();
+            end[i] = trips[i].endDate().toEpochDay();
+        }
+        fillMaxEnd(0, trips.length);
+    }
+
+    // windowFrom..windowTo penceresi için kurulur; pencere dışındaki sorgular bu indeksle cevaplanmaz
+    public static ActiveTripIndex build(LocalDate windowFrom, LocalDate windowTo, Collection<ActiveTrip> trips) {
+        ActiveTrip[] sorted = trips.stream()
+                .filter(t -> t.startDate() != null && t.endDate() != null && !t.endDate().isBefore(t.startDate()))
+                .sorted(Comparator.comparing(ActiveTrip::startDate))
+                .toArray(ActiveTrip[]::new);
+        return new ActiveTripIndex(windowFrom, windowTo, sorted);
+    }
+
+    public boolean covers(LocalDate from, LocalDate to) {
+        return !from.isBefore(windowFrom) && !to.isAfter(windowTo);
+    }
+
+    public LocalDate windowFrom() {
+        return windowFrom;
+    }
+
+    public LocalDate windowTo() {
+        return windowTo;
+    }
+
+    public int size() {
+        return trips.length;
+    }
+
+    // [from, to] kapalı aralığında en az bir günü olan trip'ler, başlangıç sırasıyla
+    public List<ActiveTrip> overlapping(LocalDate from, LocalDate to) {
+        List<ActiveTrip> out = new ArrayList<>();
+        collect(0, trips.length, from.toEpochDay(), to.toEpochDay(), out);
+        return out;
+    }
+
+    // Ülke → aralıkta o ülkede bulunan farklı kullanıcı sayısı (countryCode1 ve countryCode2 sayılır)
+    public Map<String, Integer> occupancy(LocalDate from, LocalDate to) {
+        Map<String, Set<Long>> users = new HashMap<>();
+        for (ActiveTrip t : overlapping(from, to)) {
+            users.computeIfAbsent(t.countryCode1(), k -> new HashSet<>()).add(t.userId());
+            if (t.countryCode2() != null && !t.countryCode2().equals(t.countryCode1())) {
+                users.computeIfAbsent(t.countryCode2(), k -> new HashSet<>()).add(t.userId());
+            }
+        }
+        Map<String, Integer> counts = new TreeMap<>();
+        users.forEach((country, ids) -> counts.put(country, ids.size()));
+        return counts;
+    }
+
+    private long fillMaxEnd(int lo, int hi) {
+        if (lo >= hi) return Long.MIN_VALUE;
+        int mid = (lo + hi) >>> 1;
+        long m = Math.max(end[mid], Math.max(fillMaxEnd(lo, mid), fillMaxEnd(mid + 1, hi)));
+        maxEnd[mid] = m;
+        return m;
+    }
+
+    private void collect(int lo, int hi, long from, long to, List<ActiveTrip> out) {
+        if (lo >= hi) return;
+        int mid = (lo + hi) >>> 1;
+        if (maxEnd[mid] < from) return; // bu alt ağaçtaki her trip aralıktan önce bitiyor
+        collect(lo, mid, from, to, out);
+        if (start[mid] > to) return;    // sağ alt ağaç daha da geç başlıyor
+        if (end[mid] >= from) out.add(trips[mid]);
+        collect(mid + 1, hi, from, to, out);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ActiveTrip;
+import com.example.demo.repository.TripRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * "Bugün / bu hafta kim yurt dışında" sorguları. Bugün etrafındaki pencere (geçmiş + gelecek gün)
+ * bellekte ActiveTripIndex olarak tutulur; pencere dışındaki aralıklar veritabanına gider
+ * (trips üzerindeki tarih indeksleri, bkz. TripIndexInitializer).
+ */
+@Service
+@Slf4j
+public class ActiveTripService {
+
+    private final TripRepository tripRepo;
+    private final int pastDays;
+    private final int futureDays;
+    private final RefreshableCache<ActiveTripIndex> index;
+
+    public ActiveTripService(TripRepository tripRepo,
+                             @Value("${trips.active-index.past-days:7}") int pastDays,
+                             @Value("${trips.active-index.future-days:30}") int futureDays,
+                             @Value("${trips.active-index.ttl:PT5M}") Duration ttl) {
+        if (pastDays < 0 || futureDays < 0) {
+            throw new IllegalArgumentException("trips.active-index past/future days must be >= 0");
+        }
+        this.tripRepo = tripRepo;
+        this.pastDays = pastDays;
+        this.futureDays = futureDays;
+        this.index = new RefreshableCache<>(this::loadWindow, ttl);
+    }
+
+    public List<ActiveTrip> activeTrips(LocalDate from, LocalDate to) {
+        return indexFor(from, to).overlapping(from, to);
+    }
+
+    public Map<String, Integer> occupancy(LocalDate from, LocalDate to) {
+        return indexFor(from, to).occupancy(from, to);
+    }
+
+    public RefreshableCache.Stats stats() {
+        return index.stats();
+    }
+
+    // Yeni trip commit edildikten sonra pencere bir sonraki sorguda yeniden yüklenir
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTripsChanged(TripsChangedEvent event) {
+        index.invalidate();
+    }
+
+    private ActiveTripIndex indexFor(LocalDate from, LocalDate to) {
+        if (from == null || to == null) throw new IllegalArgumentException("from and to are required");
+        if (to.isBefore(from)) throw new IllegalArgumentException("to must be >= from");
+        ActiveTripIndex current = index.get();
+        if (current.covers(from, to)) return current;
+        // Pencere dışı (geçmiş raporlar vb.): sadece bu aralık için geçici indeks
+        return ActiveTripIndex.build(from, to, tripRepo.findActiveTrips(from, to));
+    }
+
+    private ActiveTripIndex loadWindow() {
+        LocalDate today = LocalDate.now();
+        LocalDate from = today.minusDays(pastDays);
+        LocalDate to = today.plusDays(futureDays);
+        ActiveTripIndex loaded = ActiveTripIndex.build(from, to, tripRepo.findActiveTrips(from, to));
+        log.info("Active trip index loaded for {}..{}: {} trips", from, to, loaded.size());
+        return loaded;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.BatchSimulationItem;
+import com.example.demo.dto.SimulationRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+@Service
+@Slf4j
+public class BatchSimulationService {
+
+    private final SimulationService simulationService;
+    private final PricingSnapshotService snapshotService;
+    private final ExecutorService executor;
+    private final int maxBatchSize;
+    private final int inFlight;
+
+    public BatchSimulationService(SimulationService simulationService,
+                                  PricingSnapshotService snapshotService,
+                                  @Qualifier("simulationExecutor") ExecutorService executor,
+                                  @Value("${simulation.batch.max-size:100000}") int maxBatchSize,
+                                  @Value("${simulation.batch.in-flight:0}") int inFlight) {
+        this.simulationService = simulationService;
+        this.snapshotService = snapshotService;
+        this.executor = executor;
+        this.maxBatchSize = maxBatchSize;
+        this.inFlight = inFlight > 0 ? inFlight : Runtime.getRuntime().availableProcessors() * 4;
+    }
+
+    public void validate(List<SimulationRequest> requests) {
+        if (requests == null || requests.isEmpty())
+            throw new IllegalArgumentException("Batch is empty");
+        if (requests.size() > maxBatchSize)
+            throw new IllegalArgumentException("Batch too large: " + requests.size() + " > " + maxBatchSize);
+    }
+
+    // Tüm istekler aynı snapshot ile fiyatlanır; sonuçlar tamamlanma sırasıyla sink'e verilir.
+    // Aynı anda en fazla inFlight iş kuyrukta tutulur, böylece büyük batch'ler belleği şişirmez.
+    public void simulateBatch(List<SimulationRequest> requests, Consumer<BatchSimulationItem> sink) {
+        validate(requests);
+        PricingSnapshot snapshot = snapshotService.current();
+        CompletionService<BatchSimulationItem> completion = new ExecutorCompletionService<>(executor);
+
+        int submitted = 0, done = 0;
+        try {
+            while (done < requests.size()) {
+                while (submitted < requests.size() && submitted - done < inFlight) {
+                    int index = submitted++;
+                    SimulationRequest req = requests.get(index);
+                    completion.submit(() -> simulateOne(index, req, snapshot));
+                }
+                BatchSimulationItem item = completion.take().get();
+                done++;
+                sink.accept(item);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Batch simulation interrupted", e);
+        } catch (ExecutionException e) {
+            // simulateOne hataları kendisi yakalar; buraya sadece beklenmeyen durumlar düşer
+            throw new IllegalStateException("Batch simulation failed", e.getCause());
+        }
+        log.debug("Batch of {} requests priced against snapshot v{}", requests.size(), snapshot.version());
+    }
+
+    private BatchSimulationItem simulateOne(int index, SimulationRequest req, PricingSnapshot snapshot) {
+        try {
+            if (req == null || req.trips() == null || req.trips().isEmpty() || req.profile() == null)
+                throw new IllegalArgumentException("Request must contain trips and profile");
+            return new BatchSimulationItem(index, simulationService.simulate(req, snapshot), null);
+        } catch (RuntimeException e) {
+            String msg = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            return new BatchSimulationItem(index, null, msg);
+        }
+    }
+}
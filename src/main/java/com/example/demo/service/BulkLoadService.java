@@ -0,0 +1,278 @@
+package com.example.demo.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+// Büyük tarife ve abone dosyaları için toplu yükleme: PostgreSQL COPY veya JDBC batch upsert.
+// Tablo sahipliği: katalog tablolarına (countries, roaming_rates, roaming_packs) sadece catalog.source=bulk-load
+// iken yüklenir, aksi halde 5 dakikalık CSV eşitlemesi yüklenen satırları geri alırdı. users ve usage_profile
+// her zaman yüklenebilir; CSV eşitlemesi bu tablolara sadece eksik örnek satırları ekler.
+@Service
+@Slf4j
+public class BulkLoadService {
+
+    public enum Mode { COPY, BATCH }
+
+    enum ColumnType { TEXT, INT, BIGINT, DOUBLE }
+
+    // CSV kolon sırası tablodaki kolon isimleriyle aynıdır (data/*.csv başlıkları)
+    public enum Table {
+        COUNTRIES("countries", "country_code",
+                col("country_code", ColumnType.TEXT), col("country_name", ColumnType.TEXT), col("region", ColumnType.TEXT)),
+        ROAMING_RATES("roaming_rates", "country_code",
+                col("country_code", ColumnType.TEXT), col("data_per_mb", ColumnType.DOUBLE),
+                col("voice_per_min", ColumnType.DOUBLE), col("sms_per_msg", ColumnType.DOUBLE),
+                col("currency", ColumnType.TEXT)),
+        ROAMING_PACKS("roaming_packs", "pack_id",
+                col("pack_id", ColumnType.BIGINT), col("name", ColumnType.TEXT), col("coverage", ColumnType.TEXT),
+                col("coverage_type", ColumnType.TEXT), col("data_gb", ColumnType.INT), col("voice_min", ColumnType.INT),
+                col("sms", ColumnType.INT), col("price", ColumnType.DOUBLE), col("validity_days", ColumnType.INT),
+                col("currency", ColumnType.TEXT)),
+        USERS("users", "user_id",
+                col("user_id", ColumnType.BIGINT), col("name", ColumnType.TEXT), col("home_plan", ColumnType.TEXT)),
+        USAGE_PROFILE("usage_profile", "user_id",
+                col("user_id", ColumnType.BIGINT), col("avg_daily_mb", ColumnType.INT),
+                col("avg_daily_min", ColumnType.INT), col("avg_daily_sms", ColumnType.INT));
+
+        final String tableName;
+        final String key;
+        final List<Column> columns;
+
+        Table(String tableName, String key, Column... columns) {
+            this.tableName = tableName;
+            this.key = key;
+            this.columns = List.of(columns);
+        }
+
+        boolean isCatalog() {
+            return this == COUNTRIES || this == ROAMING_RATES || this == ROAMING_PACKS;
+        }
+
+        public static Table fromName(String name) {
+            return Arrays.stream(values())
+                    .filter(t -> t.tableName.equalsIgnoreCase(name) || t.name().equalsIgnoreCase(name))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown bulk-load table: " + name));
+        }
+
+        int keyIndex() {
+            for (int i = 0; i < columns.size(); i++) {
+                if (columns.get(i).name().equals(key)) return i;
+            }
+            throw new IllegalStateException("Key column missing for " + tableName);
+        }
+
+        String columnList() {
+            return columns.stream().map(Column::name).collect(Collectors.joining(", "));
+        }
+
+        // INSERT ... ON CONFLICT (pk) DO UPDATE: aynı dosya tekrar yüklenebilir
+        String upsertSql(String source) {
+            String updates = columns.stream()
+                    .filter(c -> !c.name().equals(key))
+                    .map(c -> c.name() + " = EXCLUDED." + c.name())
+                    .collect(Collectors.joining(", "));
+            return "INSERT INTO " + tableName + " (" + columnList() + ") " + source
+                    + " ON CONFLICT (" + key + ") DO UPDATE SET " + updates;
+        }
+    }
+
+    record Column(String name, ColumnType type) {
+    }
+
+    private static Column col(String name, ColumnType type) {
+        return new Column(name, type);
+    }
+
+    public record BulkLoadResult(String table, Mode mode, long rows, long millis, long rowsPerSecond) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PricingSnapshotService pricingSnapshotService;
+    private final int batchSize;
+    private final String importDir;
+    private final CatalogSyncService.CatalogSource catalogSource;
+
+    public BulkLoadService(JdbcTemplate jdbcTemplate,
+                           TransactionTemplate transactionTemplate,
+                           PricingSnapshotService pricingSnapshotService,
+                           @Value("${bulk-load.batch-size:1000}") int batchSize,
+                           @Value("${bulk-load.import-dir:}") String importDir,
+                           @Value("${catalog.source:csv}") String catalogSource) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.pricingSnapshotService = pricingSnapshotService;
+        this.batchSize = batchSize;
+        this.importDir = importDir;
+        this.catalogSource = CatalogSyncService.parseSource(catalogSource);
+    }
+
+    // csv: başlık satırı olan, tablo kolonlarıyla aynı sırada bir dosya
+    public BulkLoadResult load(Table table, InputStream csv, Mode mode) {
+        checkOwner(table);
+        return run(table, mode, () -> switch (mode) {
+            case COPY -> copy(table, csv);
+            case BATCH -> batch(table, csv);
+        });
+    }
+
+    // Sunucudaki içe aktarma dizininden dosya; BATCH modunda dosya bellek-eşlemeli okunur
+    public BulkLoadResult loadFile(Table table, String fileName, Mode mode) {
+        checkOwner(table);
+        Path file = resolveImportFile(fileName);
+        return run(table, mode, () -> switch (mode) {
+            case COPY -> {
+                try (InputStream in = Files.newInputStream(file)) {
+                    yield copy(table, in);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Error reading bulk file " + file, e);
+                }
+            }
+            case BATCH -> batch(table, file);
+        });
+    }
+
+    private void checkOwner(Table table) {
+        if (table.isCatalog() && catalogSource != CatalogSyncService.CatalogSource.BULK_LOAD)
+            throw new IllegalArgumentException("Table " + table.tableName
+                    + " is owned by the CSV catalog sync; set catalog.source=bulk-load to load it in bulk");
+    }
+
+    private Path resolveImportFile(String fileName) {
+        if (importDir == null || importDir.isBlank())
+            throw new IllegalArgumentException("bulk-load.import-dir is not configured");
+        Path dir = Path.of(importDir).toAbsolutePath().normalize();
+        Path file = dir.resolve(fileName).normalize();
+        if (!file.startsWith(dir) || !Files.isRegularFile(file))
+            throw new IllegalArgumentException("Import file not found: " + fileName);
+        return file;
+    }
+
+    private BulkLoadResult run(Table table, Mode mode, Supplier<Long> work) {
+        long started = System.nanoTime();
+        Long rows = transactionTemplate.execute(status -> work.get());
+        long millis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        long count = rows == null ? 0 : rows;
+        var result = new BulkLoadResult(table.tableName, mode, count, millis, count * 1000 / millis);
+        log.info("Bulk loaded {} rows into {} via {} in {} ms ({} rows/s)",
+                count, table.tableName, mode, millis, result.rowsPerSecond());
+
+        if (table.isCatalog()) {
+            pricingSnapshotService.reload();
+        }
+        return result;
+    }
+
+    // COPY FROM STDIN geçici tabloya, ardından tek bir INSERT ... SELECT ile hedefe upsert.
+    // Aynı anahtar dosyada tekrar ederse ON CONFLICT aynı satırı iki kez güncelleyemez: bulk_seq dosya sırasını
+    // tutar ve DISTINCT ON ile her anahtarın son satırı alınır.
+    private long copy(Table table, InputStream csv) {
+        return jdbcTemplate.execute((ConnectionCallback<Long>) con -> {
+            String staging = "bulk_" + table.tableName;
+            try (var st = con.createStatement()) {
+                st.execute("CREATE TEMP TABLE " + staging + " (LIKE " + table.tableName + " INCLUDING DEFAULTS) ON COMMIT DROP");
+                st.execute("ALTER TABLE " + staging + " ADD COLUMN bulk_seq bigserial");
+            }
+            long copied;
+            try {
+                copied = con.unwrap(PGConnection.class).getCopyAPI().copyIn(
+                        "COPY " + staging + " (" + table.columnList() + ") FROM STDIN WITH (FORMAT csv, HEADER true)", csv);
+            } catch (IOException e) {
+                throw new UncheckedIOException("COPY into " + table.tableName + " failed", e);
+            }
+            try (var st = con.createStatement()) {
+                st.executeUpdate(table.upsertSql("SELECT DISTINCT ON (" + table.key + ") " + table.columnList()
+                        + " FROM " + staging + " ORDER BY " + table.key + ", bulk_seq DESC"));
+            }
+            return copied;
+        });
+    }
+
+    // JDBC batch upsert; reWriteBatchedInserts ile sürücü batch'i çok satırlı INSERT'e çevirir
+    private long batch(Table table, InputStream csv) {
+        try {
+            return batchRows(table, handler -> TariffFileReader.read(csv, handler));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading bulk file for " + table.tableName, e);
+        }
+    }
+
+    private long batch(Table table, Path file) {
+        try {
+            return batchRows(table, handler -> TariffFileReader.read(file, handler));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading bulk file " + file, e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowSource {
+        void readInto(TariffFileReader.RowHandler handler) throws IOException;
+    }
+
+    // Batch çok satırlı INSERT'e çevrildiği için parça içinde anahtar tekrar edemez: son satır geçerli.
+    // Parçalar sırayla yazıldığından sonraki parçadaki tekrar da öncekini günceller.
+    private long batchRows(Table table, RowSource source) throws IOException {
+        String sql = table.upsertSql("VALUES (" + "?, ".repeat(table.columns.size() - 1) + "?)");
+        int keyIndex = table.keyIndex();
+        Map<Object, Object[]> chunk = new LinkedHashMap<>();
+        long[] rows = {0};
+        source.readInto(row -> {
+            Object[] values = toRow(table, row);
+            chunk.put(values[keyIndex], values);
+            rows[0]++;
+            if (chunk.size() == batchSize) {
+                jdbcTemplate.batchUpdate(sql, new ArrayList<>(chunk.values()));
+                chunk.clear();
+            }
+        });
+        if (!chunk.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, new ArrayList<>(chunk.values()));
+        }
+        return rows[0];
+    }
+
+    private static Object[] toRow(Table table, TariffFileReader.Row row) {
+        if (row.fieldCount() < table.columns.size())
+            throw new IllegalArgumentException("Expected " + table.columns.size() + " columns for "
+                    + table.tableName + " but got " + row.fieldCount());
+        Object[] values = new Object[table.columns.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = switch (table.columns.get(i).type()) {
+                case TEXT -> row.getString(i);
+                case INT -> row.getInt(i);
+                case BIGINT -> row.getLong(i);
+                case DOUBLE -> row.getDouble(i);
+            };
+        }
+        return values;
+    }
+
+    public static Mode parseMode(String mode) {
+        try {
+            return Mode.valueOf(mode.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown bulk-load mode: " + mode);
+        }
+    }
+}
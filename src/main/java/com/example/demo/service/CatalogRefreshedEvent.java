@@ -0,0 +1,5 @@
+package com.example.demo.service;
+
+// Yeni bir fiyat snapshot'ı yayınlandığında (katalog değişti) gönderilir
+public record CatalogRefreshedEvent(long version) {
+}
@@ -1,27 +1,67 @@
 package com.example.demo.service;
 
 import com.example.demo.dto.CatalogResponse;
-import com.example.demo.entity.Country;
-import com.example.demo.entity.RoamingPack;
-import com.example.demo.entity.RoamingRate;
 import com.example.demo.repository.CountryRepository;
 import com.example.demo.repository.RoamingPackRepository;
 import com.example.demo.repository.RoamingRateRepository;
-import lombok.RequiredArgsConstructor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.List;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
 
 @Service
-@RequiredArgsConstructor
+@Slf4j
 public class CatalogService {
 
     private final CountryRepository countryRepo;
     private final RoamingRateRepository rateRepo;
     private final RoamingPackRepository packRepo;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readTx;
+    private final TransactionTemplate primaryTx;
 
-    private boolean cached = true;
-    private CatalogResponse cache;
+    // Yenilemeden sonraki ilk yükleme birincil veritabanından yapılır (replika gecikmesi eski katalogu önbelleğe koymasın)
+    private final AtomicBoolean readPrimaryNext = new AtomicBoolean();
+
+    private volatile boolean cached = true;
+    private final RefreshableCache<CachedCatalog> cache;
+
+    // Katalog her veri versiyonunda bir kez JSON'a ve gzip'e çevrilir; istekler hazır byte'ları döner
+    public record CatalogPayload(byte[] json, byte[] gzip, String etag, String gzipEtag) {
+    }
+
+    private record CachedCatalog(CatalogResponse response, CatalogPayload payload) {
+    }
+
+    public CatalogService(CountryRepository countryRepo,
+                          RoamingRateRepository rateRepo,
+                          RoamingPackRepository packRepo,
+                          ObjectMapper objectMapper,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${catalog.cache.ttl:PT10M}") Duration ttl) {
+        this.countryRepo = countryRepo;
+        this.rateRepo = rateRepo;
+        this.packRepo = packRepo;
+        this.objectMapper = objectMapper;
+        this.readTx = new TransactionTemplate(transactionManager);
+        this.readTx.setReadOnly(true);
+        this.primaryTx = new TransactionTemplate(transactionManager);
+        this.cache = new RefreshableCache<>(this::load, ttl);
+    }
 
     public CatalogService withCache(boolean enabled) {
         this.cached = enabled;
@@ -29,12 +69,58 @@ public class CatalogService {
     }
 
     public CatalogResponse getCatalog() {
-        if (cached && cache != null)
-            return cache;
-        List<Country> countries = countryRepo.findAll();
-        List<RoamingRate> rates = rateRepo.findAll();
-        List<RoamingPack> packs = packRepo.findAll();
-        cache = new CatalogResponse(countries, rates, packs);
-        return cache;
+        return (cached ? cache.get() : load()).response();
+    }
+
+    public CatalogPayload getCatalogPayload() {
+        return (cached ? cache.get() : load()).payload();
+    }
+
+    // Veri yenilendiğinde bir sonraki istek katalogu tekrar yükler
+    @EventListener
+    public void onCatalogRefreshed(CatalogRefreshedEvent event) {
+        log.debug("Invalidating catalog cache for snapshot v{}", event.version());
+        readPrimaryNext.set(true);
+        invalidate();
+    }
+
+    public void invalidate() {
+        cache.invalidate();
+    }
+
+    public RefreshableCache.Stats cacheStats() {
+        return cache.stats();
+    }
+
+    // Üç tablo tek transaction'da okunur; read-only olduğu için replika varsa oraya gider
+    private CachedCatalog load() {
+        boolean fromPrimary = readPrimaryNext.getAndSet(false);
+        try {
+            CatalogResponse response = (fromPrimary ? primaryTx : readTx).execute(status -> new CatalogResponse(
+                    countryRepo.findAll(), rateRepo.findAll(), packRepo.findAll()));
+            return new CachedCatalog(response, render(response));
+        } catch (RuntimeException e) {
+            if (fromPrimary) readPrimaryNext.set(true);
+            throw e;
+        }
+    }
+
+    private CatalogPayload render(CatalogResponse response) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(response);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+                gz.write(json);
+            }
+            // Güçlü ETag içerikten türetilir; gzip gösterimi ayrı bir etiket taşır
+            String hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json), 0, 16);
+            return new CatalogPayload(json, out.toByteArray(), "\"" + hash + "\"", "\"" + hash + "-gz\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Catalog serialization failed", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 }
@@ -0,0 +1,149 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Country;
+import com.example.demo.entity.RoamingPack;
+import com.example.demo.entity.RoamingRate;
+import com.example.demo.entity.UsageProfile;
+import com.example.demo.entity.User;
+import com.example.demo.repository.CountryRepository;
+import com.example.demo.repository.RoamingPackRepository;
+import com.example.demo.repository.RoamingRateRepository;
+import com.example.demo.repository.UsageProfileRepository;
+import com.example.demo.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Örnek CSV'lerin veritabanına eşitlenmesi. Her tablonun tek bir sahibi vardır:
+ * <ul>
+ *   <li>Katalog tabloları (countries, roaming_rates, roaming_packs): catalog.source=csv (varsayılan) ise
+ *   sahibi bu eşitlemedir, CSV'de olmayan satırlar silinir; catalog.source=bulk-load ise sahibi
+ *   BulkLoadService'tir ve burada hiç dokunulmaz.</li>
+ *   <li>users ve usage_profile: sahibi uygulama ve toplu yüklemedir. CSV sadece eksik örnek satırları ekler;
+ *   mevcut satırlar güncellenmez, CSV'de olmayanlar silinmez.</li>
+ * </ul>
+ */
+@Service
+@Slf4j
+public class CatalogSyncService {
+
+    public enum CatalogSource { CSV, BULK_LOAD }
+
+    // Tek DELETE'teki en fazla anahtar (PostgreSQL bind parametre sınırının çok altında)
+    static final int DELETE_CHUNK = 1000;
+
+    private final CountryRepository countryRepository;
+    private final RoamingRateRepository roamingRateRepository;
+    private final RoamingPackRepository roamingPackRepository;
+    private final UserRepository userRepository;
+    private final UsageProfileRepository usageProfileRepository;
+    private final EntityManager entityManager;
+    private final CatalogSource catalogSource;
+
+    public CatalogSyncService(CountryRepository countryRepository,
+                              RoamingRateRepository roamingRateRepository,
+                              RoamingPackRepository roamingPackRepository,
+                              UserRepository userRepository,
+                              UsageProfileRepository usageProfileRepository,
+                              EntityManager entityManager,
+                              @Value("${catalog.source:csv}") String catalogSource) {
+        this.countryRepository = countryRepository;
+        this.roamingRateRepository = roamingRateRepository;
+        this.roamingPackRepository = roamingPackRepository;
+        this.userRepository = userRepository;
+        this.usageProfileRepository = usageProfileRepository;
+        this.entityManager = entityManager;
+        this.catalogSource = parseSource(catalogSource);
+    }
+
+    public static CatalogSource parseSource(String source) {
+        return switch (source.trim().toLowerCase(Locale.ROOT)) {
+            case "csv" -> CatalogSource.CSV;
+            case "bulk-load" -> CatalogSource.BULK_LOAD;
+            default -> throw new IllegalArgumentException("catalog.source must be 'csv' or 'bulk-load': " + source);
+        };
+    }
+
+    public CatalogSource catalogSource() {
+        return catalogSource;
+    }
+
+    public record SyncResult(String table, int inserted, int updated, int deleted, int unchanged) {
+        public boolean changed() {
+            return inserted + updated + deleted > 0;
+        }
+    }
+
+    public record SyncReport(List<SyncResult> results) {
+        // Fiyat snapshot'ını etkileyen tablolar
+        public boolean catalogChanged() {
+            return results.stream()
+                    .filter(r -> Set.of("countries", "roaming_rates", "roaming_packs").contains(r.table()))
+                    .anyMatch(SyncResult::changed);
+        }
+    }
+
+    // Tek transaction: okuyucular ya eski ya yeni katalogu görür, hiçbir zaman boş tabloyu görmez
+    @Transactional
+    public SyncReport syncAll(List<Country> countries, List<RoamingRate> rates, List<RoamingPack> packs,
+                              List<User> users, List<UsageProfile> profiles) {
+        List<SyncResult> results = new ArrayList<>();
+        if (catalogSource == CatalogSource.CSV) {
+            results.add(sync("countries", countryRepository, countries, Country::getCountryCode));
+            results.add(sync("roaming_rates", roamingRateRepository, rates, RoamingRate::getCountryCode));
+            results.add(sync("roaming_packs", roamingPackRepository, packs, RoamingPack::getPackId));
+        }
+        results.add(seed("users", userRepository, users, User::getUserId));
+        results.add(seed("usage_profile", usageProfileRepository, profiles, UsageProfile::getUserId));
+        results.stream().filter(SyncResult::changed).forEach(r -> log.info("Synced {}", r));
+        return new SyncReport(List.copyOf(results));
+    }
+
+    // CSV satırından üretilen entity ile saklı olan karşılaştırılır (Lombok @Data eşitliği tüm kolonları kapsar);
+    // sadece yeni, değişen ve silinen satırlar yazılır. Sadece CSV'nin sahibi olduğu (küçük) tablolar için.
+    private <T, ID> SyncResult sync(String table, JpaRepository<T, ID> repo, List<T> desired, Function<T, ID> idOf) {
+        Map<ID, T> stored = new HashMap<>();
+        for (T t : repo.findAll()) stored.put(idOf.apply(t), t);
+
+        Map<ID, T> wanted = new LinkedHashMap<>();
+        for (T t : desired) wanted.put(idOf.apply(t), t); // aynı id tekrar ederse son satır geçerli
+
+        int inserted = 0, updated = 0, unchanged = 0;
+        for (var e : wanted.entrySet()) {
+            T current = stored.remove(e.getKey());
+            if (current == null) {
+                entityManager.persist(e.getValue());
+                inserted++;
+            } else if (!current.equals(e.getValue())) {
+                entityManager.merge(e.getValue()); // zaten yönetilen entity'ye kopyalanır, ek SELECT yok
+                updated++;
+            } else {
+                unchanged++;
+            }
+        }
+
+        // CSV'de artık olmayan satırlar anahtarla, parça parça silinir
+        List<ID> stale = new ArrayList<>(stored.keySet());
+        for (int i = 0; i < stale.size(); i += DELETE_CHUNK) {
+            repo.deleteAllByIdInBatch(stale.subList(i, Math.min(i + DELETE_CHUNK, stale.size())));
+        }
+        return new SyncResult(table, inserted, updated, stale.size(), unchanged);
+    }
+
+    // Sadece CSV'deki anahtarlar okunur; eksik olanlar eklenir, geri kalan satırlara dokunulmaz
+    private <T, ID> SyncResult seed(String table, JpaRepository<T, ID> repo, List<T> desired, Function<T, ID> idOf) {
+        Map<ID, T> wanted = new LinkedHashMap<>();
+        for (T t : desired) wanted.put(idOf.apply(t), t);
+        for (T t : repo.findAllById(wanted.keySet())) wanted.remove(idOf.apply(t));
+
+        wanted.values().forEach(entityManager::persist);
+        return new SyncResult(table, wanted.size(), 0, 0, desired.size() - wanted.size());
+    }
+}
@@ -17,13 +17,12 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
@@ -36,6 +35,8 @@ public class CheckoutService {
     private final RoamingRateRepository roamingRateRepository;
     private final UserRepository userRepository;
     private final UsageProfileRepository usageProfileRepository;
+    private final PricingSnapshotService pricingSnapshotService;
+    private final CatalogSyncService catalogSyncService;
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
@@ -53,174 +54,107 @@ public class CheckoutService {
 
     private void loadSampleData() {
         try {
-            // Clear existing data to avoid conflicts
-            clearExistingData();
-
-            loadCountries();
-            loadRoamingRates();
-            loadRoamingPacks();
-            loadUsers();
-            loadUsageProfiles();
+            // Parse every file first; a read error aborts the refresh instead of wiping a table
+            var report = catalogSyncService.syncAll(
+                    readCountries(),
+                    readRoamingRates(),
+                    readRoamingPacks(),
+                    readUsers(),
+                    readUsageProfiles());
             log.info("Sample data loaded successfully");
+
+            // Simülasyonların kullandığı fiyat snapshot'ını sadece katalog değiştiyse yenile
+            if (report.catalogChanged()) {
+                pricingSnapshotService.reload();
+            }
         } catch (Exception e) {
             log.error("Error loading sample data: {}", e.getMessage(), e);
         }
     }
 
-    private void clearExistingData() {
-        log.debug("Clearing existing data...");
-        usageProfileRepository.deleteAll();
-        userRepository.deleteAll();
-        roamingPackRepository.deleteAll();
-        roamingRateRepository.deleteAll();
-        countryRepository.deleteAll();
+    private List<Country> readCountries() {
+        List<Country> countries = new ArrayList<>();
+        readCsv("/data/countries.csv", row -> {
+            if (row.fieldCount() >= 3) {
+                Country country = new Country();
+                country.setCountryCode(row.getString(0));
+                country.setCountryName(row.getString(1));
+                country.setRegion(row.getString(2));
+                countries.add(country);
+            }
+        });
+        return countries;
     }
 
-    private void loadCountries() {
-        try (InputStream is = getClass().getResourceAsStream("/data/countries.csv");
-                BufferedReader reader = new BufferedReader(new InputStreamReader(is))) {
-
-            // Skip header
-            String line = reader.readLine();
-
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(",");
-                if (parts.length >= 3) {
-                    Country country = new Country();
-                    country.setCountryCode(parts[0].trim());
-                    country.setCountryName(parts[1].trim());
-                    country.setRegion(parts[2].trim());
-
-                    // Check if country already exists
-                    if (!countryRepository.existsById(country.getCountryCode())) {
-                        countryRepository.save(country);
-                        log.debug("Added country: {}", country.getCountryCode());
-                    }
-                }
+    private List<RoamingRate> readRoamingRates() {
+        List<RoamingRate> rates = new ArrayList<>();
+        readCsv("/data/roaming_rates.csv", row -> {
+            if (row.fieldCount() >= 5) {
+                RoamingRate rate = new RoamingRate();
+                rate.setCountryCode(row.getString(0));
+                rate.setDataPerMb(row.getDouble(1));
+                rate.setVoicePerMin(row.getDouble(2));
+                rate.setSmsPerMsg(row.getDouble(3));
+                rate.setCurrency(row.getString(4));
+                rates.add(rate);
             }
-        } catch (IOException e) {
-            log.error("Error loading countries: {}", e.getMessage());
-        }
+        });
+        return rates;
     }
 
-    private void loadRoamingRates() {
-        try (InputStream is = getClass().getResourceAsStream("/data/roaming_rates.csv");
-                BufferedReader reader = new BufferedReader(new InputStreamReader(is))) {
-
-            // Skip header
-            String line = reader.readLine();
-
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(",");
-                if (parts.length >= 5) {
-                    RoamingRate rate = new RoamingRate();
-                    rate.setCountryCode(parts[0].trim());
-                    rate.setDataPerMb(Double.valueOf(parts[1].trim()));
-                    rate.setVoicePerMin(Double.valueOf(parts[2].trim()));
-                    rate.setSmsPerMsg(Double.valueOf(parts[3].trim()));
-                    rate.setCurrency(parts[4].trim());
-
-                    // Check if rate already exists
-                    if (!roamingRateRepository.existsById(rate.getCountryCode())) {
-                        roamingRateRepository.save(rate);
-                        log.debug("Added roaming rate for country: {}", rate.getCountryCode());
-                    }
-                }
+    private List<RoamingPack> readRoamingPacks() {
+        List<RoamingPack> packs = new ArrayList<>();
+        readCsv("/data/roaming_packs.csv", row -> {
+            if (row.fieldCount() >= 10) {
+                RoamingPack pack = new RoamingPack(row.getLong(0));
+                pack.setName(row.getString(1));
+                pack.setCoverage(row.getString(2));
+                pack.setCoverageType(row.getString(3));
+                pack.setDataGb(row.getInt(4));
+                pack.setVoiceMin(row.getInt(5));
+                pack.setSms(row.getInt(6));
+                pack.setPrice(row.getDouble(7));
+                pack.setValidityDays(row.getInt(8));
+                pack.setCurrency(row.getString(9));
+                packs.add(pack);
             }
-        } catch (IOException e) {
-            log.error("Error loading roaming rates: {}", e.getMessage());
-        }
+        });
+        return packs;
     }
 
-    private void loadRoamingPacks() {
-        try (InputStream is = getClass().getResourceAsStream("/data/roaming_packs.csv");
-                BufferedReader reader = new BufferedReader(new InputStreamReader(is))) {
-
-            // Skip header
-            String line = reader.readLine();
-
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(",");
-                if (parts.length >= 10) {
-                    Long packId = Long.valueOf(parts[0].trim());
-
-                    // Check if pack already exists
-                    if (!roamingPackRepository.existsById(packId)) {
-                        RoamingPack pack = new RoamingPack(packId);
-                        pack.setName(parts[1].trim());
-                        pack.setCoverage(parts[2].trim());
-                        pack.setCoverageType(parts[3].trim());
-                        pack.setDataGb(Integer.valueOf(parts[4].trim()));
-                        pack.setVoiceMin(Integer.valueOf(parts[5].trim()));
-                        pack.setSms(Integer.valueOf(parts[6].trim()));
-                        pack.setPrice(Double.valueOf(parts[7].trim()));
-                        pack.setValidityDays(Integer.valueOf(parts[8].trim()));
-                        pack.setCurrency(parts[9].trim());
-
-                        roamingPackRepository.save(pack);
-                        log.debug("Added roaming pack: {}", pack.getName());
-                    }
-                }
+    private List<User> readUsers() {
+        List<User> users = new ArrayList<>();
+        readCsv("/data/users.csv", row -> {
+            if (row.fieldCount() >= 3) {
+                User user = new User(row.getLong(0));
+                user.setName(row.getString(1));
+                user.setHomePlan(row.getString(2));
+                users.add(user);
             }
-        } catch (IOException e) {
-            log.error("Error loading roaming packs: {}", e.getMessage());
-        }
+        });
+        return users;
     }
 
-    private void loadUsers() {
-        try (InputStream is = getClass().getResourceAsStream("/data/users.csv");
-                BufferedReader reader = new BufferedReader(new InputStreamReader(is))) {
-
-            // Skip header
-            String line = reader.readLine();
-
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(",");
-                if (parts.length >= 3) {
-                    Long userId = Long.valueOf(parts[0].trim());
-
-                    // Check if user already exists
-                    if (!userRepository.existsById(userId)) {
-                        User user = new User(userId);
-                        user.setName(parts[1].trim());
-                        user.setHomePlan(parts[2].trim());
-
-                        userRepository.save(user);
-                        log.debug("Added user: {}", user.getName());
-                    }
-                }
+    private List<UsageProfile> readUsageProfiles() {
+        List<UsageProfile> profiles = new ArrayList<>();
+        readCsv("/data/usage_profile.csv", row -> {
+            if (row.fieldCount() >= 4) {
+                UsageProfile profile = new UsageProfile(row.getLong(0));
+                profile.setAvgDailyMb(row.getInt(1));
+                profile.setAvgDailyMin(row.getInt(2));
+                profile.setAvgDailySms(row.getInt(3));
+                profiles.add(profile);
             }
-        } catch (IOException e) {
-            log.error("Error loading users: {}", e.getMessage());
-        }
+        });
+        return profiles;
     }
 
-    private void loadUsageProfiles() {
-        try (InputStream is = getClass().getResourceAsStream("/data/usage_profile.csv");
-                BufferedReader reader = new BufferedReader(new InputStreamReader(is))) {
-
-            // Skip header
-            String line = reader.readLine();
-
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(",");
-                if (parts.length >= 4) {
-                    Long userId = Long.valueOf(parts[0].trim());
-
-                    // Check if profile already exists
-                    if (!usageProfileRepository.existsById(userId)) {
-                        UsageProfile profile = new UsageProfile(userId);
-                        profile.setAvgDailyMb(Integer.valueOf(parts[1].trim()));
-                        profile.setAvgDailyMin(Integer.valueOf(parts[2].trim()));
-                        profile.setAvgDailySms(Integer.valueOf(parts[3].trim()));
-
-                        usageProfileRepository.save(profile);
-                        log.debug("Added usage profile for user: {}", profile.getUserId());
-                    }
-                }
-            }
+    // Header is skipped by the reader; the row object is reused, so handlers copy what they need
+    private void readCsv(String resource, TariffFileReader.RowHandler rowHandler) {
+        try {
+            TariffFileReader.readResource(resource, rowHandler);
         } catch (IOException e) {
-            log.error("Error loading usage profiles: {}", e.getMessage());
+            throw new UncheckedIOException("Error reading " + resource, e);
         }
     }
 
@@ -0,0 +1,330 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.SimulationRequest;
+import com.example.demo.dto.SimulationResponse;
+import com.example.demo.entity.RoamingPack;
+import com.example.demo.entity.RoamingRate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+
+import static java.lang.Math.max;
+
+/**
+ * Paket kombinasyonu: trip günleri tarih sırasıyla dizilir ve her biri ya PAYG ile ya da bir paket
+ * alımıyla karşılanır. Bir alım, başladığı günden itibaren validity süresi içindeki ardışık günleri
+ * (segment) karşılar; paketin kapsamadığı günler PAYG, kota aşımı segmentin kendi ülkelerinin
+ * ortalama oranıyla ödenir. Aynı anda tek alım aktif olduğu için kalan kota segment içinde kapalı
+ * formda hesaplanır ve DP sadece günler üzerinden kurulur:
+ * <pre>best[i] = min(best[i-1] + payg(i-1), min_j best[j] + seg(j, i))</pre>
+ * seg(j, i) tüm adaylar arasında en ucuz tek alımdır. Budama: kapsadığı tüm günlerin PAYG'si
+ * fiyatından düşük olan paket hiç değerlendirilmez; kapsanmayan günde başlayan/biten segment
+ * (PAYG + daha kısa segment tarafından baskılandığı için) atlanır. Değerlendirme sayısı ve süre
+ * Limits ile sınırlıdır; sınıra gelinirse o ana kadarki en iyi plan döner (truncated).
+ */
+public final class ComboSolver {
+
+    public record Limits(boolean enabled, int maxDays, long maxEvaluations, Duration timeBudget) {
+        public static final Limits DEFAULT = new Limits(true, 120, 2_000_000L, Duration.ofMillis(20));
+        public static final Limits DISABLED = new Limits(false, 0, 0L, Duration.ZERO);
+    }
+
+    // paygDays: PAYG ödenen gün sayısı (alım olmayan günler + alımın kapsamadığı ülkedeki günler)
+    public record Plan(double cost, List<SimulationResponse.Option.Purchase> purchases, int paygDays,
+                       long evaluations, boolean truncated) {
+    }
+
+    // Önbellek anahtarı için rota: tarih sırası, bitişik aynı ülke bacakları birleşik, ilk güne göre göreli
+    public record RouteLeg(String countryCode, int offset, int days) {
+    }
+
+    private ComboSolver() {
+    }
+
+    public static List<RouteLeg> route(List<SimulationRequest.Leg> legs) {
+        List<SimulationRequest.Leg> sorted = new ArrayList<>(legs);
+        sorted.sort(Comparator.comparing(SimulationRequest.Leg::startDate));
+        List<RouteLeg> route = new ArrayList<>(sorted.size());
+        long first = sorted.isEmpty() ? 0 : sorted.get(0).startDate().toEpochDay();
+        for (SimulationRequest.Leg l : sorted) {
+            int offset = (int) (l.startDate().toEpochDay() - first);
+            int days = PricingEngine.countDaysInclusive(l);
+            if (!route.isEmpty()) {
+                RouteLeg last = route.get(route.size() - 1);
+                if (last.countryCode().equals(l.countryCode()) && last.offset() + last.days() == offset) {
+                    route.set(route.size() - 1, new RouteLeg(last.countryCode(), last.offset(), last.days() + days));
+                    continue;
+                }
+            }
+            route.add(new RouteLeg(l.countryCode(), offset, days));
+        }
+        return List.copyOf(route);
+    }
+
+    // Combo seçeneği (varsa her zaman ilk seçenek) alım tarihleri days kadar kaydırılmış olarak; combo yoksa aynı yanıt
+    public static SimulationResponse shiftPurchases(SimulationResponse r, long days) {
+        if (days == 0 || r.options().isEmpty() || !"combo".equals(r.options().get(0).kind())) return r;
+        List<SimulationResponse.Option> options = new ArrayList<>(r.options());
+        options.set(0, shift(options.get(0), days));
+        return new SimulationResponse(r.summary(), Collections.unmodifiableList(options), r.warnings());
+    }
+
+    static SimulationResponse.Option shift(SimulationResponse.Option o, long days) {
+        if (days == 0) return o;
+        List<SimulationResponse.Option.Purchase> purchases = o.purchases().stream()
+                .map(x -> new SimulationResponse.Option.Purchase(x.packId(), x.packName(),
+                        x.fromDate().plusDays(days), x.toDate().plusDays(days), x.cost()))
+                .toList();
+        return new SimulationResponse.Option(o.kind(), o.packId(), o.packName(), o.nPacks(), o.totalCost(),
+                o.currency(), o.coverageHit(), o.validityOk(), o.overflow(), purchases);
+    }
+
+    // Snapshot'taki tüm adaylarla tek başına çözüm (benchmark ve testler için)
+    public static Plan solve(SimulationRequest req, PricingSnapshot snapshot, Limits limits) {
+        Itinerary it = Itinerary.of(req, snapshot);
+        BitSet candidates = new BitSet();
+        it.collectCandidates(snapshot.coverage(), candidates);
+        return solve(req, it, snapshot, candidates, limits);
+    }
+
+    // En iyi plan tamamen PAYG ise veya trip maxDays'ten uzunsa null
+    static Plan solve(SimulationRequest req, Itinerary it, PricingSnapshot snapshot, BitSet candidates, Limits limits) {
+        int days = it.totalDays;
+        if (!limits.enabled() || days <= 0 || days > limits.maxDays() || candidates.isEmpty()) return null;
+        Workspace w = WORKSPACES.acquire();
+        try {
+            return solve(req, it, snapshot, candidates, limits, w);
+        } finally {
+            WORKSPACES.release(w);
+        }
+    }
+
+    private static Plan solve(SimulationRequest req, Itinerary it, PricingSnapshot snapshot, BitSet candidates,
+                              Limits limits, Workspace w) {
+        int days = it.totalDays;
+        long deadline = System.nanoTime() + limits.timeBudget().toNanos();
+        var p = req.profile();
+        int mb = p.avgDailyMb(), min = p.avgDailyMin(), sms = p.avgDailySms();
+        w.ensure(days, req.trips().size());
+        int countries = w.layout(req.trips(), snapshot, mb, min, sms);
+
+        PackTable t = snapshot.packTable();
+        CoverageIndex coverage = snapshot.coverage();
+        int stride = days + 1;
+        // seg(j, i) başlangıçta PAYG: bir paket ancak bundan ucuzsa seçilir
+        for (int j = 0; j < days; j++) {
+            for (int i = j + 1; i <= days; i++) {
+                w.seg[j * stride + i] = w.payg[i] - w.payg[j];
+                w.segPack[j * stride + i] = -1;
+            }
+        }
+
+        long evaluations = 0;
+        boolean truncated = false;
+        int visited = 0;
+        for (int pi = candidates.nextSetBit(0); pi >= 0; pi = candidates.nextSetBit(pi + 1)) {
+            if ((++visited & 63) == 0 && System.nanoTime() > deadline) {
+                truncated = true;
+                break;
+            }
+            // Paketin kapsadığı günlerin toplam PAYG'si fiyatından düşükse hiçbir segmentte kazandırmaz
+            double coveredPayg = 0;
+            for (int k = 0; k < countries; k++) {
+                w.countryCovered[k] = coverage.covers(pi, w.countryBit[k]);
+                if (w.countryCovered[k]) coveredPayg += w.countryPayg[k];
+            }
+            double price = t.price[pi];
+            if (price >= coveredPayg) continue;
+
+            // Paketin kapsamasına göre önek toplamları
+            for (int d = 0; d < days; d++) {
+                boolean c = w.countryCovered[w.dayCountry[d]];
+                w.covered[d] = c;
+                w.cnt[d + 1] = w.cnt[d] + (c ? 1 : 0);
+                w.pd[d + 1] = w.pd[d] + (c ? w.rd[d] : 0);
+                w.pv[d + 1] = w.pv[d] + (c ? w.rv[d] : 0);
+                w.ps[d + 1] = w.ps[d] + (c ? w.rs[d] : 0);
+                w.pq[d + 1] = w.pq[d] + (c ? w.q[d] : 0);
+            }
+            double quotaMb = t.dataGb[pi] * 1024.0;
+            int quotaMin = t.voiceMin[pi], quotaSms = t.sms[pi];
+            int validity = t.validityDays[pi];
+
+            for (int j = 0; j < days; j++) {
+                if (!w.covered[j]) continue;
+                for (int i = j + 1; i <= days && w.epoch[i - 1] - w.epoch[j] < validity; i++) {
+                    if (!w.covered[i - 1]) continue;
+                    evaluations++;
+                    int n = w.cnt[i] - w.cnt[j];
+                    double uncovered = (w.payg[i] - w.payg[j]) - (w.pq[i] - w.pq[j]);
+                    double over = max(0.0, (double) n * mb - quotaMb) * (w.pd[i] - w.pd[j]) / n
+                            + max(0, n * min - quotaMin) * (w.pv[i] - w.pv[j]) / n
+                            + max(0, n * sms - quotaSms) * (w.ps[i] - w.ps[j]) / n;
+                    double cost = price + uncovered + over;
+                    int cell = j * stride + i;
+                    if (cost < w.seg[cell]) {
+                        w.seg[cell] = cost;
+                        w.segPack[cell] = pi;
+                    }
+                }
+            }
+            if (evaluations >= limits.maxEvaluations()) {
+                truncated = pi != candidates.previousSetBit(candidates.length() - 1);
+                break;
+            }
+        }
+
+        // DP: best[i] = ilk i günün en düşük maliyeti, from[i] = son segmentin başlangıcı (-1: gün i-1 PAYG)
+        w.best[0] = 0;
+        for (int i = 1; i <= days; i++) {
+            double b = w.best[i - 1] + (w.payg[i] - w.payg[i - 1]);
+            int from = -1;
+            for (int j = 0; j < i; j++) {
+                int cell = j * stride + i;
+                if (w.segPack[cell] < 0) continue;
+                double c = w.best[j] + w.seg[cell];
+                if (c < b) {
+                    b = c;
+                    from = j;
+                }
+            }
+            w.best[i] = b;
+            w.from[i] = from;
+        }
+
+        List<RoamingPack> packs = snapshot.packs();
+        Deque<SimulationResponse.Option.Purchase> purchases = new ArrayDeque<>();
+        int paygDays = 0;
+        for (int i = days; i > 0; ) {
+            int j = w.from[i];
+            if (j < 0) {
+                paygDays++;
+                i--;
+                continue;
+            }
+            int cell = j * stride + i;
+            int pi = w.segPack[cell];
+            for (int d = j; d < i; d++) {
+                if (!coverage.covers(pi, w.countryBit[w.dayCountry[d]])) paygDays++;
+            }
+            purchases.addFirst(new SimulationResponse.Option.Purchase(t.packId[pi], packs.get(pi).getName(),
+                    LocalDate.ofEpochDay(w.epoch[j]), LocalDate.ofEpochDay(w.epoch[i - 1]), round2(w.seg[cell])));
+            i = j;
+        }
+        if (purchases.isEmpty()) return null;
+        return new Plan(round2(w.best[days]), List.copyOf(purchases), paygDays, evaluations, truncated);
+    }
+
+    private static double round2(double v) {
+        return Math.round(v * 100.0) / 100.0;
+    }
+
+    private static final WorkspacePool<Workspace> WORKSPACES = new WorkspacePool<>(WorkspacePool.defaultCapacity(), Workspace::new);
+
+    // Havuzdan alınıp tekrar kullanılan diziler; gün sayısı (ve segment tablosu için karesi) kadar büyür
+    private static final class Workspace {
+        long[] epoch = new long[0];
+        int[] dayCountry = new int[0];
+        double[] rd = new double[0], rv = new double[0], rs = new double[0], q = new double[0];
+        boolean[] covered = new boolean[0];
+        int[] cnt = new int[0];
+        double[] pd = new double[0], pv = new double[0], ps = new double[0], pq = new double[0], payg = new double[0];
+        double[] best = new double[0];
+        int[] from = new int[0];
+        double[] seg = new double[0];
+        int[] segPack = new int[0];
+
+        int[] countryBit = new int[0];
+        double[] countryPayg = new double[0];
+        boolean[] countryCovered = new boolean[0];
+
+        void ensure(int days, int legs) {
+            if (epoch.length < days) {
+                epoch = new long[days];
+                dayCountry = new int[days];
+                rd = new double[days];
+                rv = new double[days];
+                rs = new double[days];
+                q = new double[days];
+                covered = new boolean[days];
+                cnt = new int[days + 1];
+                pd = new double[days + 1];
+                pv = new double[days + 1];
+                ps = new double[days + 1];
+                pq = new double[days + 1];
+                payg = new double[days + 1];
+                best = new double[days + 1];
+                from = new int[days + 1];
+                seg = new double[(days + 1) * (days + 1)];
+                segPack = new int[(days + 1) * (days + 1)];
+            }
+            if (countryBit.length < legs) {
+                countryBit = new int[legs];
+                countryPayg = new double[legs];
+                countryCovered = new boolean[legs];
+            }
+        }
+
+        // Günleri tarih sırasıyla yerleştirir (eşit tarihte bacak sırası); farklı ülke sayısını döner
+        int layout(List<SimulationRequest.Leg> legs, PricingSnapshot snapshot, int mb, int min, int sms) {
+            List<SimulationRequest.Leg> sorted = new ArrayList<>(legs);
+            sorted.sort(Comparator.comparing(SimulationRequest.Leg::startDate));
+            Map<String, Integer> countryIndex = new HashMap<>();
+            int d = 0;
+            for (SimulationRequest.Leg l : sorted) {
+                Integer k = countryIndex.get(l.countryCode());
+                if (k == null) {
+                    k = countryIndex.size();
+                    countryIndex.put(l.countryCode(), k);
+                    countryBit[k] = snapshot.coverage().countryBit(l.countryCode());
+                    countryPayg[k] = 0;
+                }
+                RoamingRate rr = snapshot.rates().get(l.countryCode());
+                double dataPerMb = rr == null ? 0 : rr.getDataPerMb();
+                double voicePerMin = rr == null ? 0 : rr.getVoicePerMin();
+                double smsPerMsg = rr == null ? 0 : rr.getSmsPerMsg();
+                long start = l.startDate().toEpochDay();
+                int n = PricingEngine.countDaysInclusive(l);
+                for (int i = 0; i < n; i++, d++) {
+                    epoch[d] = start + i;
+                    dayCountry[d] = k;
+                    rd[d] = dataPerMb;
+                    rv[d] = voicePerMin;
+                    rs[d] = smsPerMsg;
+                    q[d] = mb * dataPerMb + min * voicePerMin + sms * smsPerMsg;
+                    countryPayg[k] += q[d];
+                }
+            }
+            // Çakışan bacaklarda tarih sırası bozulabilir: günleri tarihe göre kararlı sırala
+            sortByEpoch(d);
+            for (int i = 0; i < d; i++) payg[i + 1] = payg[i] + q[i];
+            return countryIndex.size();
+        }
+
+        private void sortByEpoch(int n) {
+            for (int i = 1; i < n; i++) {
+                if (epoch[i] >= epoch[i - 1]) continue;
+                long e = epoch[i];
+                int c = dayCountry[i];
+                double a = rd[i], b = rv[i], s = rs[i], qq = q[i];
+                int j = i - 1;
+                while (j >= 0 && epoch[j] > e) {
+                    epoch[j + 1] = epoch[j];
+                    dayCountry[j + 1] = dayCountry[j];
+                    rd[j + 1] = rd[j];
+                    rv[j + 1] = rv[j];
+                    rs[j + 1] = rs[j];
+                    q[j + 1] = q[j];
+                    j--;
+                }
+                epoch[j + 1] = e;
+                dayCountry[j + 1] = c;
+                rd[j + 1] = a;
+                rv[j + 1] = b;
+                rs[j + 1] = s;
+                q[j + 1] = qq;
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Country;
+import com.example.demo.entity.RoamingPack;
+
+import java.util.*;
+
+/**
+ * Paket kapsamalarının önceden çözülmüş hali. Her ülke koduna bir bit atanır;
+ * her paket için kapsadığı ülkelerin bitset'i, her ülke için de onu kapsayan
+ * paketlerin (snapshot'taki sıra numarasıyla) bitset'i tutulur.
+ * Simülasyon sırasında string karşılaştırması yapılmaz.
+ */
+public final class CoverageIndex {
+
+    private static final BitSet NONE = new BitSet(0);
+
+    private final Map<String, Integer> countryBits;
+    private final BitSet[] packCoverage;
+    private final BitSet[] candidatesByCountry;
+
+    private CoverageIndex(Map<String, Integer> countryBits, BitSet[] packCoverage, BitSet[] candidatesByCountry) {
+        this.countryBits = countryBits;
+        this.packCoverage = packCoverage;
+        this.candidatesByCountry = candidatesByCountry;
+    }
+
+    static CoverageIndex build(Collection<Country> countries, List<RoamingPack> packs) {
+        // Ülke evreni: katalogdaki ülkeler + "country" tipindeki paketlerin kodları
+        Map<String, Integer> bits = new HashMap<>();
+        Map<String, BitSet> regionMembers = new HashMap<>();
+        for (Country c : countries) {
+            int bit = bits.computeIfAbsent(key(c.getCountryCode()), k -> bits.size());
+            if (c.getRegion() != null) {
+                regionMembers.computeIfAbsent(key(c.getRegion()), k -> new BitSet()).set(bit);
+            }
+        }
+        for (RoamingPack p : packs) {
+            if ("country".equals(p.getCoverageType())) {
+                bits.computeIfAbsent(key(p.getCoverage()), k -> bits.size());
+            }
+        }
+
+        BitSet[] coverage = new BitSet[packs.size()];
+        BitSet[] candidates = new BitSet[bits.size()];
+        for (int i = 0; i < packs.size(); i++) {
+            RoamingPack p = packs.get(i);
+            BitSet cov = switch (p.getCoverageType()) {
+                case "region" -> (BitSet) regionMembers.getOrDefault(key(p.getCoverage()), NONE).clone();
+                case "country" -> {
+                    BitSet b = new BitSet();
+                    b.set(bits.get(key(p.getCoverage())));
+                    yield b;
+                }
+                default -> new BitSet(0);
+            };
+            coverage[i] = cov;
+            for (int c = cov.nextSetBit(0); c >= 0; c = cov.nextSetBit(c + 1)) {
+                if (candidates[c] == null) candidates[c] = new BitSet(packs.size());
+                candidates[c].set(i);
+            }
+        }
+        return new CoverageIndex(Map.copyOf(bits), coverage, candidates);
+    }
+
+    private static String key(String code) {
+        return code.toUpperCase(Locale.ROOT);
+    }
+
+    // Ülkenin bit numarası; katalogda ve hiçbir pakette yoksa -1
+    public int countryBit(String countryCode) {
+        if (countryCode == null) return -1;
+        Integer bit = countryBits.get(key(countryCode));
+        return bit == null ? -1 : bit;
+    }
+
+    // Verilen ülkeyi kapsayan paketlerin sıra numaraları (değiştirilmemeli)
+    public BitSet candidates(int countryBit) {
+        if (countryBit < 0 || candidatesByCountry[countryBit] == null) return NONE;
+        return candidatesByCountry[countryBit];
+    }
+
+    public boolean covers(int packIndex, int countryBit) {
+        return countryBit >= 0 && packCoverage[packIndex].get(countryBit);
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.SimulationRequest;
+import com.example.demo.entity.RoamingRate;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bir teklifin pakete bağlı olmayan kısmı, bir kez hesaplanır: toplam gün, ihtiyaçlar,
+ * gün ağırlıklı PAYG oran vektörü ve PAYG maliyeti, ülke başına (coverage bit, gün) dizileri.
+ * Paket değerlendirmesi (PricingEngine.packCost) sadece pakete ve bu nesneye bağlıdır.
+ */
+public final class Itinerary {
+
+    final int totalDays;
+    final double needGb;
+    final int needMin;
+    final int needSms;
+
+    // Gün ağırlıklı ortalama PAYG oranları (oranı olmayan ülkeler katkı vermez)
+    final double dataPerMb;
+    final double voicePerMin;
+    final double smsPerMsg;
+
+    final double paygCost;
+    final String paygCurrency;
+
+    // Ülke başına coverage index biti ve gün sayısı; aynı ülkedeki bacaklar birleştirilmiştir
+    final int[] countryBits;
+    final int[] countryDays;
+
+    private Itinerary(int totalDays, double needGb, int needMin, int needSms,
+                      double dataPerMb, double voicePerMin, double smsPerMsg,
+                      double paygCost, String paygCurrency, int[] countryBits, int[] countryDays) {
+        this.totalDays = totalDays;
+        this.needGb = needGb;
+        this.needMin = needMin;
+        this.needSms = needSms;
+        this.dataPerMb = dataPerMb;
+        this.voicePerMin = voicePerMin;
+        this.smsPerMsg = smsPerMsg;
+        this.paygCost = paygCost;
+        this.paygCurrency = paygCurrency;
+        this.countryBits = countryBits;
+        this.countryDays = countryDays;
+    }
+
+    public static Itinerary of(SimulationRequest req, PricingSnapshot snapshot) {
+        // Ülke → gün adedi haritası
+        Map<String, Integer> countryDayMap = new HashMap<>();
+        req.trips().forEach(l -> countryDayMap.merge(l.countryCode(), PricingEngine.countDaysInclusive(l), Integer::sum));
+        var p = req.profile();
+        return of(countryDayMap, p.avgDailyMb(), p.avgDailyMin(), p.avgDailySms(), snapshot);
+    }
+
+    // countryDays'in iterasyon sırası PAYG toplamlarının sırasını (ve para birimini) belirler
+    public static Itinerary of(Map<String, Integer> countryDays, int dailyMb, int dailyMin, int dailySms,
+                               PricingSnapshot snapshot) {
+        int totalDays = 0;
+        for (int d : countryDays.values()) totalDays += d;
+
+        double needGb = (dailyMb * totalDays) / 1024.0;
+        int needMin = dailyMin * totalDays;
+        int needSms = dailySms * totalDays;
+
+        Map<String, RoamingRate> rates = snapshot.rates();
+        CoverageIndex coverage = snapshot.coverage();
+        int[] bits = new int[countryDays.size()];
+        int[] days = new int[countryDays.size()];
+        double paygCost = 0.0; String paygCurr = null;
+        double dataPerMb = 0, voicePerMin = 0, smsPerMsg = 0;
+        int i = 0;
+        for (var e : countryDays.entrySet()) {
+            bits[i] = coverage.countryBit(e.getKey());
+            days[i] = e.getValue();
+            i++;
+
+            double share = e.getValue() / (double) totalDays;
+            RoamingRate rr = rates.get(e.getKey());
+            if (rr == null) continue;
+            paygCurr = rr.getCurrency(); // basit varsayım: tek para birimi
+            paygCost += (needGb*1024*rr.getDataPerMb()*share)  // GB→MB
+                    + (needMin*rr.getVoicePerMin()*share)
+                    + (needSms*rr.getSmsPerMsg()*share);
+            dataPerMb   += rr.getDataPerMb()*share;
+            voicePerMin += rr.getVoicePerMin()*share;
+            smsPerMsg   += rr.getSmsPerMsg()*share;
+        }
+        return new Itinerary(totalDays, needGb, needMin, needSms, dataPerMb, voicePerMin, smsPerMsg,
+                paygCost, paygCurr, bits, days);
+    }
+
+    // En az bir ülkeyi kapsayan paketler (snapshot sırasıyla) into'ya eklenir
+    void collectCandidates(CoverageIndex coverage, BitSet into) {
+        for (int bit : countryBits) into.or(coverage.candidates(bit));
+    }
+
+    // Paketin kapsadığı ülkelerdeki toplam gün
+    int coveredDays(CoverageIndex coverage, int packIndex) {
+        int covered = 0;
+        for (int i = 0; i < countryBits.length; i++) {
+            if (coverage.covers(packIndex, countryBits[i])) covered += countryDays[i];
+        }
+        return covered;
+    }
+
+    public int totalDays() {
+        return totalDays;
+    }
+
+    public double paygCost() {
+        return paygCost;
+    }
+
+    public String paygCurrency() {
+        return paygCurrency;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.RoamingPack;
+
+import java.util.List;
+
+/**
+ * Snapshot paketlerinin fiyatlamada kullanılan sayısal alanları, dizi-yapısı (struct of arrays)
+ * olarak. i. eleman snapshot.packs().get(i) ve coverage index'teki i. paketle aynıdır.
+ * Sıcak döngü entity getter'larını (Integer/Double kutulama) hiç çağırmaz.
+ */
+final class PackTable {
+
+    final int size;
+    final long[] packId;
+    final double[] price;
+    final int[] dataGb;
+    final int[] voiceMin;
+    final int[] sms;
+    final int[] validityDays;
+
+    private PackTable(int size) {
+        this.size = size;
+        this.packId = new long[size];
+        this.price = new double[size];
+        this.dataGb = new int[size];
+        this.voiceMin = new int[size];
+        this.sms = new int[size];
+        this.validityDays = new int[size];
+    }
+
+    static PackTable of(List<RoamingPack> packs) {
+        PackTable t = new PackTable(packs.size());
+        for (int i = 0; i < t.size; i++) {
+            RoamingPack p = packs.get(i);
+            t.packId[i] = p.getPackId();
+            t.price[i] = p.getPrice();
+            t.dataGb[i] = p.getDataGb();
+            t.voiceMin[i] = p.getVoiceMin();
+            t.sms[i] = p.getSms();
+            t.validityDays[i] = p.getValidityDays();
+        }
+        return t;
+    }
+}
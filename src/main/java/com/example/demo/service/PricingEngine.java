@@ -0,0 +1,318 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.SimulationRequest;
+import com.example.demo.dto.SimulationResponse;
+import com.example.demo.entity.RoamingPack;
+
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+import static java.lang.Math.ceil;
+import static java.lang.Math.max;
+
+// Fiyatlama mantığı: Spring'e ve veritabanına bağlı değildir, sadece snapshot üzerinde çalışır
+public final class PricingEngine {
+
+    private PricingEngine() {
+    }
+
+    public static int countDaysInclusive(SimulationRequest.Leg leg) {
+        return (int)(ChronoUnit.DAYS.between(leg.startDate(), leg.endDate()) + 1);
+    }
+
+    public static SimulationResponse simulate(SimulationRequest req, PricingSnapshot snapshot) {
+        return simulate(req, snapshot, ComboSolver.Limits.DEFAULT);
+    }
+
+    // req.limit() > 0 ise sadece en iyi N seçenek döner (sınırlı heap ile seçim, tam sıralama yapılmaz);
+    // sıra her iki modda da aynıdır: maliyet, sonra kapsama (kapsanan gün), sonra validity.
+    // Paket kombinasyonu (ComboSolver) tek paket seçeneklerinin hepsinden ucuzsa en başa eklenir.
+    public static SimulationResponse simulate(SimulationRequest req, PricingSnapshot snapshot,
+                                              ComboSolver.Limits comboLimits) {
+        return simulate(req, snapshot, comboLimits, null);
+    }
+
+    // coveredDays: aday paketlerin (snapshot sırasıyla) kapsanan günleri önceden biliniyorsa (QuotePricer); null ise hesaplanır
+    static SimulationResponse simulate(SimulationRequest req, PricingSnapshot snapshot,
+                                       ComboSolver.Limits comboLimits, int[] coveredDays) {
+        int limit = req.limitOrAll();
+        if (limit < 0) throw new IllegalArgumentException("limit must be >= 0");
+        Workspace w = WORKSPACES.acquire();
+        try {
+            return simulate(req, snapshot, comboLimits, coveredDays, limit, w);
+        } finally {
+            WORKSPACES.release(w);
+        }
+    }
+
+    private static SimulationResponse simulate(SimulationRequest req, PricingSnapshot snapshot,
+                                               ComboSolver.Limits comboLimits, int[] knownCoveredDays, int limit,
+                                               Workspace w) {
+
+        // 1-3) Trip bir kez indirgenir: gün/ülke dağılımı, ihtiyaçlar, gün ağırlıklı PAYG oranları ve PAYG maliyeti
+        Itinerary it = Itinerary.of(req, snapshot);
+        int totalDays = it.totalDays;
+        var needs = new SimulationResponse.Needs(it.needGb, it.needMin, it.needSms);
+
+        // meta: packs (bellekteki snapshot'tan)
+        List<RoamingPack> packs = snapshot.packs();
+        PackTable table = snapshot.packTable();
+        CoverageIndex coverage = snapshot.coverage();
+
+        List<String> warnings = new ArrayList<>();
+
+        // 4) Paket seçenekleri: sadece en az bir ülkeyi kapsayan adaylar (coverage index),
+        // maliyetler ilkel dizilere yazılır; Option nesnesi burada üretilmez
+        w.candidates.clear();
+        it.collectCandidates(coverage, w.candidates);
+        int n = w.candidates.cardinality();
+        if (knownCoveredDays != null && knownCoveredDays.length != n) {
+            throw new IllegalStateException("Expected covered days for " + n + " candidates, got " + knownCoveredDays.length);
+        }
+        w.ensureResults(n + 1);
+        int k = 0;
+        for (int pi = w.candidates.nextSetBit(0); pi >= 0; pi = w.candidates.nextSetBit(pi + 1)) {
+            // kapsama kontrolü (çok ülke varsa en az biri kapsam dışıysa uyarı, maliyeti oransal hesaplarız)
+            int coveredDays = knownCoveredDays != null ? knownCoveredDays[k] : it.coveredDays(coverage, pi);
+
+            w.packIndex[k] = pi;
+            w.coveredDays[k] = coveredDays;
+            w.validityOk[k] = totalDays <= table.validityDays[pi];
+            w.cost[k] = round2(packTotal(table, pi, it, coveredDays));
+            k++;
+        }
+        // PAYG en sona eklenir: tüm günleri kapsar, eşitlikte kapsaması tam ve validity'si uygun paketlerin arkasında kalır
+        w.cost[n] = round2(it.paygCost);
+        w.coveredDays[n] = totalDays;
+        w.validityOk[n] = true;
+
+        // 5) Kombinasyon: gün bazında birden fazla alım; sadece en ucuz tek seçenekten ucuzsa gösterilir
+        ComboSolver.Plan combo = ComboSolver.solve(req, it, snapshot, w.candidates, comboLimits);
+        if (combo != null) {
+            double cheapest = w.cost[n];
+            for (int i = 0; i < n; i++) cheapest = Math.min(cheapest, w.cost[i]);
+            if (combo.cost() >= cheapest || repeatsSinglePack(combo, table, w, n, totalDays)) combo = null;
+        }
+        int first = combo != null ? 1 : 0;
+
+        // 6) Sonuçlar: [combo] + PAYG + paketler. Limit yoksa tam sıralama, varsa en iyi N seçilir
+        int count = limit > 0 ? Math.min(limit - first, n + 1) : n + 1;
+        if (count == n + 1) w.sortAll(n + 1);
+        else w.selectTop(n + 1, count);
+
+        SimulationResponse.Option[] all = new SimulationResponse.Option[first + count];
+        if (combo != null) {
+            all[0] = comboOption(packs, combo);
+            if (combo.truncated()) warnings.add(COMBO_TRUNCATED_WARNING);
+        }
+        for (int i = 0; i < count; i++) {
+            int pos = w.order[i];
+            all[first + i] = pos == n
+                    ? paygOption(it, w.cost[n])
+                    : packOption(packs, table, w.packIndex[pos], it, w.cost[pos]);
+        }
+
+        // Uyarılar her iki modda da paket sırasıyla (snapshot sırası) ve sadece döndürülen paketler için üretilir;
+        // sonuç sırası bozulmasın diye pozisyonların kopyası sıralanır
+        int[] byPack = w.scratch;
+        System.arraycopy(w.order, 0, byPack, 0, count);
+        Arrays.sort(byPack, 0, count);
+        for (int i = 0; i < count; i++) {
+            int pos = byPack[i];
+            if (pos == n) continue;
+            addPackWarnings(warnings, packs.get(w.packIndex[pos]).getName(), w.validityOk[pos], w.coveredDays[pos] < totalDays);
+        }
+
+        var summary = new SimulationResponse.Summary(totalDays, needs);
+        // Sonuç önbellekte paylaşıldığı için listeler değiştirilemez
+        return new SimulationResponse(summary, Collections.unmodifiableList(Arrays.asList(all)), List.copyOf(warnings));
+    }
+
+    static final String COMBO_TRUNCATED_WARNING =
+            "Kombinasyon araması süre/değerlendirme sınırına ulaştı; bulunan en iyi plan gösteriliyor";
+
+    static void addPackWarnings(List<String> warnings, String name, boolean validityOk, boolean uncoveredDays) {
+        if (!validityOk) warnings.add("Paketin geçerliliği trip süresinden kısa: " + name);
+        if (uncoveredDays) warnings.add("Kapsama dışında gün(ler) var: " + name);
+    }
+
+    // Combo aynı paketi tek paket seçeneğindeki adet kadar alıyorsa o seçeneğin kendisidir; combo günlük
+    // modelle (kapsanmayan günlerde kesin PAYG), tek paket seçeneği trip geneli modelle fiyatlandığı için aynı
+    // alım daha ucuz görünüp en başa geçmesin diye combo gösterilmez
+    private static boolean repeatsSinglePack(ComboSolver.Plan plan, PackTable t, Workspace w, int n, int totalDays) {
+        long id = plan.purchases().get(0).packId();
+        for (SimulationResponse.Option.Purchase p : plan.purchases()) {
+            if (p.packId() != id) return false;
+        }
+        for (int k = 0; k < n; k++) {
+            int pi = w.packIndex[k];
+            if (t.packId[pi] == id) return plan.purchases().size() == nPacks(t, pi, totalDays);
+        }
+        return false;
+    }
+
+    private static int nPacks(PackTable t, int pi, int totalDays) {
+        return (int) ceil(totalDays / (double) t.validityDays[pi]);
+    }
+
+    // Tek paketin yuvarlanmamış toplam maliyeti; sadece pakete ve önceden hesaplanmış itinerary'ye bağlıdır
+    public static double packCost(PricingSnapshot snapshot, int packIndex, Itinerary it) {
+        return packTotal(snapshot.packTable(), packIndex, it, it.coveredDays(snapshot.coverage(), packIndex));
+    }
+
+    // Paket maliyeti: taban fiyat + aşım + kapsanmayan günlerin PAYG maliyeti
+    private static double packTotal(PackTable t, int pi, Itinerary it, int coveredDays) {
+        int nPacks = nPacks(t, pi, it.totalDays);
+        double base = t.price[pi] * nPacks;
+
+        // basitleştirme: aşımı gün ağırlıklı ortalama PAYG oranlarıyla hesapla (case kuralı)
+        double overGb  = max(0.0, it.needGb  - nPacks * t.dataGb[pi]);
+        double overMin = max(0.0, it.needMin - nPacks * t.voiceMin[pi]);
+        double overSms = max(0.0, it.needSms - nPacks * t.sms[pi]);
+
+        // kapsanmayan günlerin payg maliyeti → ihtiyaç da aynı oranda
+        double uncoveredShare = 1.0 - coveredDays / (double) it.totalDays;
+        double uncoveredCost = (it.needGb*1024*it.dataPerMb*uncoveredShare)
+                + (it.needMin*it.voicePerMin*uncoveredShare)
+                + (it.needSms*it.smsPerMsg*uncoveredShare);
+
+        double overCost = (overGb*1024*it.dataPerMb) + (overMin*it.voicePerMin) + (overSms*it.smsPerMsg);
+        return base + overCost + uncoveredCost;
+    }
+
+    static SimulationResponse.Option paygOption(Itinerary it, double totalCost) {
+        return new SimulationResponse.Option("payg", null, 0, totalCost, it.paygCurrency, true, true, null);
+    }
+
+    // Sadece döndürülen paketler için Option/Overflow üretilir
+    static SimulationResponse.Option packOption(List<RoamingPack> packs, PackTable t, int pi,
+                                                        Itinerary it, double totalCost) {
+        int nPacks = nPacks(t, pi, it.totalDays);
+        double overGb  = max(0.0, it.needGb  - nPacks * t.dataGb[pi]);
+        double overMin = max(0.0, it.needMin - nPacks * t.voiceMin[pi]);
+        double overSms = max(0.0, it.needSms - nPacks * t.sms[pi]);
+        return new SimulationResponse.Option(
+                "pack",
+                t.packId[pi],
+                packs.get(pi).getName(),
+                nPacks,
+                totalCost,
+                packs.get(pi).getCurrency(),
+                true,
+                it.totalDays <= t.validityDays[pi],
+                new SimulationResponse.Option.Overflow(round2(overGb*1024*it.dataPerMb), round2(overMin*it.voicePerMin), round2(overSms*it.smsPerMsg))
+        );
+    }
+
+    // Alımların adları birleştirilir; para birimi ilk alımın paketinden (basit varsayım: tek para birimi).
+    // coverageHit: her gün bir alımla kapsanıyor, PAYG ödenen gün yok
+    private static SimulationResponse.Option comboOption(List<RoamingPack> packs, ComboSolver.Plan plan) {
+        StringJoiner name = new StringJoiner(" + ");
+        plan.purchases().forEach(p -> name.add(p.packName()));
+        Long firstId = plan.purchases().get(0).packId();
+        String currency = packs.stream().filter(p -> firstId.equals(p.getPackId())).findFirst()
+                .map(RoamingPack::getCurrency).orElse(null);
+        return new SimulationResponse.Option("combo", null, name.toString(), plan.purchases().size(), plan.cost(),
+                currency, plan.paygDays() == 0, true, null, plan.purchases());
+    }
+
+    private static double round2(double v){ return Math.round(v*100.0)/100.0; }
+
+    private static final WorkspacePool<Workspace> WORKSPACES = new WorkspacePool<>(WorkspacePool.defaultCapacity(), Workspace::new);
+
+    /**
+     * Havuzdan alınıp tekrar kullanılan çalışma alanı: aday bitset'i ve aday başına maliyet/sıralama dizileri. Diziler sadece büyür; kararlı bir teklifte
+     * paket sayısıyla orantılı ayırma yapılmaz.
+     */
+    private static final class Workspace {
+        final BitSet candidates = new BitSet();
+
+        int[] packIndex = new int[64];
+        int[] coveredDays = new int[64];
+        boolean[] validityOk = new boolean[64];
+        double[] cost = new double[64];
+        int[] order = new int[64];
+        int[] scratch = new int[64];
+
+        void ensureResults(int n) {
+            if (cost.length < n) {
+                int size = Math.max(n, cost.length * 2);
+                packIndex = new int[size];
+                coveredDays = new int[size];
+                validityOk = new boolean[size];
+                cost = new double[size];
+                order = new int[size];
+                scratch = new int[size];
+            }
+        }
+
+        // a, b sonuç pozisyonları: a önce gelmeli mi? maliyet ↑, kapsanan gün ↓, validity uygun önce, ekleme sırası
+        boolean before(int a, int b) {
+            int c = Double.compare(cost[a], cost[b]);
+            if (c != 0) return c < 0;
+            if (coveredDays[a] != coveredDays[b]) return coveredDays[a] > coveredDays[b];
+            if (validityOk[a] != validityOk[b]) return validityOk[a];
+            return a < b;
+        }
+
+        // order[0..n) ← tüm pozisyonlar, birleştirme sıralamasıyla
+        void sortAll(int n) {
+            for (int i = 0; i < n; i++) order[i] = i;
+            int[] src = order, dst = scratch;
+            for (int width = 1; width < n; width *= 2) {
+                for (int lo = 0; lo < n; lo += 2 * width) {
+                    int mid = Math.min(lo + width, n), hi = Math.min(lo + 2 * width, n);
+                    int a = lo, b = mid, o = lo;
+                    while (a < mid && b < hi) {
+                        dst[o++] = before(src[b], src[a]) ? src[b++] : src[a++];
+                    }
+                    while (a < mid) dst[o++] = src[a++];
+                    while (b < hi) dst[o++] = src[b++];
+                }
+                int[] t = src; src = dst; dst = t;
+            }
+            if (src != order) System.arraycopy(src, 0, order, 0, n);
+        }
+
+        // order[0..k) ← en iyi k pozisyon, sıralı. Kökte en kötü eleman olan k boyutlu heap: O(n log k)
+        void selectTop(int n, int k) {
+            int[] heap = scratch;
+            int size = 0;
+            for (int p = 0; p < n; p++) {
+                if (size < k) {
+                    // yukarı taşı: ebeveynden daha kötüyse yer değiştir
+                    int i = size++;
+                    while (i > 0) {
+                        int parent = (i - 1) >>> 1;
+                        if (!before(heap[parent], p)) break;
+                        heap[i] = heap[parent];
+                        i = parent;
+                    }
+                    heap[i] = p;
+                } else if (before(p, heap[0])) {
+                    siftDown(heap, size, p);
+                }
+            }
+            // Kök her seferinde kalanların en kötüsü: sondan başa yerleştir
+            for (int i = size - 1; i >= 0; i--) {
+                int worst = heap[0];
+                size--;
+                if (size > 0) siftDown(heap, size, heap[size]);
+                order[i] = worst;
+            }
+        }
+
+        private void siftDown(int[] heap, int size, int p) {
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) break;
+                if (child + 1 < size && before(heap[child], heap[child + 1])) child++;
+                if (!before(p, heap[child])) break;
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = p;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Country;
+import com.example.demo.entity.RoamingPack;
+import com.example.demo.entity.RoamingRate;
+
+import java.util.*;
+
+/**
+ * Fiyatlama için kullanılan katalogun değişmez (immutable) bir kopyası.
+ * Ülkeler, oranlar ve paketler yükleme anında indekslenir; simülasyon sıcak yolunda
+ * veritabanına gidilmez. Her yeniden yüklemede yeni bir versiyon üretilir.
+ * <p>
+ * İçerdiği entity nesneleri paylaşılır, bu yüzden okuyucular tarafından değiştirilmemelidir.
+ */
+public final class PricingSnapshot {
+
+    public static final PricingSnapshot EMPTY = of(0L, List.of(), List.of(), List.of());
+
+    private final long version;
+    private final Map<String, Country> countries;
+    private final Map<String, RoamingRate> rates;
+    private final List<RoamingPack> packs;
+    private final CoverageIndex coverage;
+    private final PackTable packTable;
+
+    private PricingSnapshot(long version,
+                            Map<String, Country> countries,
+                            Map<String, RoamingRate> rates,
+                            List<RoamingPack> packs,
+                            CoverageIndex coverage,
+                            PackTable packTable) {
+        this.version = version;
+        this.countries = countries;
+        this.rates = rates;
+        this.packs = packs;
+        this.coverage = coverage;
+        this.packTable = packTable;
+    }
+
+    public static PricingSnapshot of(long version,
+                                     Collection<Country> countries,
+                                     Collection<RoamingRate> rates,
+                                     Collection<RoamingPack> packs) {
+        Map<String, Country> countryMap = new LinkedHashMap<>();
+        countries.forEach(c -> countryMap.put(c.getCountryCode(), c));
+
+        Map<String, RoamingRate> rateMap = new LinkedHashMap<>();
+        rates.forEach(r -> rateMap.put(r.getCountryCode(), r));
+
+        List<RoamingPack> packList = List.copyOf(packs);
+        return new PricingSnapshot(
+                version,
+                Collections.unmodifiableMap(countryMap),
+                Collections.unmodifiableMap(rateMap),
+                packList,
+                CoverageIndex.build(countryMap.values(), packList),
+                PackTable.of(packList));
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public Map<String, Country> countries() {
+        return countries;
+    }
+
+    public Map<String, RoamingRate> rates() {
+        return rates;
+    }
+
+    public List<RoamingPack> packs() {
+        return packs;
+    }
+
+    // Paketlerin sırası coverage index'teki paket numaralarıyla aynıdır
+    public CoverageIndex coverage() {
+        return coverage;
+    }
+
+    // packs() ile aynı sırada, fiyatlama çekirdeğinin okuduğu ilkel diziler
+    PackTable packTable() {
+        return packTable;
+    }
+
+    public boolean isEmpty() {
+        return packs.isEmpty() && rates.isEmpty();
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.demo.service;
+
+import com.example.demo.repository.CountryRepository;
+import com.example.demo.repository.RoamingPackRepository;
+import com.example.demo.repository.RoamingRateRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PricingSnapshotService {
+
+    private final CountryRepository countryRepo;
+    private final RoamingRateRepository rateRepo;
+    private final RoamingPackRepository packRepo;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final AtomicReference<PricingSnapshot> current = new AtomicReference<>(PricingSnapshot.EMPTY);
+    private final AtomicLong versions = new AtomicLong();
+
+    // Sıcak yol: sadece referans okunur, veritabanına gidilmez
+    public PricingSnapshot current() {
+        PricingSnapshot s = current.get();
+        if (s.version() == 0L) {
+            // Henüz hiç yüklenmediyse (ör. açılışta CSV yüklemesi başarısız olduysa) bir kez yükle
+            synchronized (this) {
+                s = current.get();
+                if (s.version() == 0L) return reload();
+            }
+        }
+        return s;
+    }
+
+    // CSV'ler yeniden yüklendikten sonra çağrılır; yeni snapshot atomik olarak yayınlanır
+    // ve önbellekler CatalogRefreshedEvent ile haberdar edilir.
+    // Yazmanın hemen ardından çalıştığı için bilerek read-only değildir: replika değil birincil okunur.
+    @Transactional
+    public synchronized PricingSnapshot reload() {
+        PricingSnapshot next = PricingSnapshot.of(
+                versions.incrementAndGet(),
+                countryRepo.findAll(),
+                rateRepo.findAll(),
+                packRepo.findAll());
+        current.set(next);
+        log.info("Pricing snapshot v{} published: {} countries, {} rates, {} packs",
+                next.version(), next.countries().size(), next.rates().size(), next.packs().size());
+        eventPublisher.publishEvent(new CatalogRefreshedEvent(next.version()));
+        return next;
+    }
+}
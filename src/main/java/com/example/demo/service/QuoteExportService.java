@@ -0,0 +1,77 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ProfileQuote;
+import com.example.demo.dto.SimulationRequest;
+import com.example.demo.dto.SimulationResponse;
+import com.example.demo.entity.UsageProfile;
+import com.example.demo.repository.UsageProfileRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+@Service
+@Slf4j
+public class QuoteExportService {
+
+    private final UsageProfileRepository usageProfileRepository;
+    private final SimulationService simulationService;
+    private final PricingSnapshotService snapshotService;
+    private final EntityManager entityManager;
+    private final int pageSize;
+
+    public QuoteExportService(UsageProfileRepository usageProfileRepository,
+                              SimulationService simulationService,
+                              PricingSnapshotService snapshotService,
+                              EntityManager entityManager,
+                              @Value("${quote.export.page-size:1000}") int pageSize) {
+        this.usageProfileRepository = usageProfileRepository;
+        this.simulationService = simulationService;
+        this.snapshotService = snapshotService;
+        this.entityManager = entityManager;
+        this.pageSize = pageSize;
+    }
+
+    public void validate(List<SimulationRequest.Leg> trips) {
+        if (trips == null || trips.isEmpty())
+            throw new IllegalArgumentException("Itinerary template must contain at least one leg");
+    }
+
+    // Tüm kullanım profillerini user_id sırasıyla sayfa sayfa gezer; bellekte sadece bir sayfa tutulur.
+    // Open-in-view açıkken istek boyunca aynı EntityManager kullanılır; her sayfadan sonra temizlenir.
+    public long exportAll(List<SimulationRequest.Leg> trips, Consumer<ProfileQuote> sink) {
+        validate(trips);
+        PricingSnapshot snapshot = snapshotService.current();
+        long count = 0;
+        long started = System.nanoTime();
+        Long lastUserId = Long.MIN_VALUE;
+
+        while (true) {
+            List<UsageProfile> page = usageProfileRepository
+                    .findByUserIdGreaterThanOrderByUserIdAsc(lastUserId, Limit.of(pageSize));
+            if (page.isEmpty()) break;
+
+            for (UsageProfile p : page) {
+                var profile = new SimulationRequest.UsageProfileDto(p.getAvgDailyMb(), p.getAvgDailyMin(), p.getAvgDailySms());
+                SimulationResponse sim = simulationService.simulate(new SimulationRequest(p.getUserId(), trips, profile), snapshot);
+                sink.accept(new ProfileQuote(
+                        p.getUserId(),
+                        sim.summary().days(),
+                        sim.options().isEmpty() ? null : sim.options().get(0),
+                        sim.options().size()));
+                count++;
+            }
+            lastUserId = page.get(page.size() - 1).getUserId();
+            entityManager.clear();
+            if (page.size() < pageSize) break;
+        }
+
+        long ms = (System.nanoTime() - started) / 1_000_000;
+        log.info("Exported {} profile quotes in {} ms (snapshot v{})", count, ms, snapshot.version());
+        return count;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.SimulationRequest;
+import com.example.demo.dto.SimulationResponse;
+
+import java.util.*;
+
+/**
+ * Teklif oturumunun fiyatlama durumu; maliyet modeli PricingEngine ile aynıdır, böylece teklif
+ * /api/simulate ve /api/recommendations ile aynı fiyatları verir. Ülke başına gün (itinerary
+ * toplamları) ve aday paket başına kapsanan gün (paket kısmi sonuçları) tutulur. Bacak
+ * değişikliğinde sadece gün sayısı değişen ülkeleri kapsayan adayların kapsanan günü güncellenir;
+ * ülke kümesi değişirse aday paketler de değiştiği için baştan kurulur. Profil kısmi sonuçları
+ * etkilemez. Paket başına maliyet, sıralama, uyarılar ve combo her yanıtta PricingEngine'de üretilir.
+ * <p>
+ * Örnekler değiştirilebilir durum taşır; çağıran senkronize eder (QuoteSessionService oturum başına kilitler).
+ */
+public final class QuotePricer {
+
+    private final PricingSnapshot snapshot;
+    private final ComboSolver.Limits comboLimits;
+
+    private Map<String, Integer> countryDays = Map.of();
+    private int[] cand = new int[0];        // aday paketlerin snapshot sıra numaraları (artan)
+    private int[] coveredDays = new int[0]; // aday başına kapsanan gün
+    private int lastRecomputedPacks;
+
+    public QuotePricer(PricingSnapshot snapshot, ComboSolver.Limits comboLimits, List<SimulationRequest.Leg> legs) {
+        this.snapshot = snapshot;
+        this.comboLimits = comboLimits;
+        rebuild(countryDays(legs));
+    }
+
+    public void replaceLegs(List<SimulationRequest.Leg> legs) {
+        Map<String, Integer> next = countryDays(legs);
+        if (!next.keySet().equals(countryDays.keySet())) {
+            rebuild(next);
+            return;
+        }
+        CoverageIndex coverage = snapshot.coverage();
+        BitSet touched = new BitSet(cand.length);
+        for (var e : next.entrySet()) {
+            int delta = e.getValue() - countryDays.get(e.getKey());
+            if (delta == 0) continue;
+            BitSet covering = coverage.candidates(coverage.countryBit(e.getKey()));
+            for (int pi = covering.nextSetBit(0); pi >= 0; pi = covering.nextSetBit(pi + 1)) {
+                int k = Arrays.binarySearch(cand, pi);
+                coveredDays[k] += delta;
+                touched.set(k);
+            }
+        }
+        countryDays = next;
+        lastRecomputedPacks = touched.cardinality();
+    }
+
+    // Son değişiklikte kapsanan günü güncellenen aday sayısı (tam kurulumda tüm adaylar)
+    public int lastRecomputedPacks() {
+        return lastRecomputedPacks;
+    }
+
+    public int candidates() {
+        return cand.length;
+    }
+
+    // legs, replaceLegs ile verilen son bacaklar olmalıdır
+    public SimulationResponse response(List<SimulationRequest.Leg> legs, SimulationRequest.UsageProfileDto profile,
+                                       int limit) {
+        var req = new SimulationRequest(null, legs, profile, limit);
+        return PricingEngine.simulate(req, snapshot, comboLimits, coveredDays);
+    }
+
+    // Bacakların ülkelerini kapsayan aday paket sayısı (oturum boyutu tahmini için, durum kurmadan)
+    public static int candidateCount(PricingSnapshot snapshot, List<SimulationRequest.Leg> legs) {
+        Set<String> countries = new HashSet<>();
+        legs.forEach(l -> countries.add(l.countryCode()));
+        return candidates(snapshot.coverage(), countries).cardinality();
+    }
+
+    private static BitSet candidates(CoverageIndex coverage, Collection<String> countries) {
+        BitSet candidates = new BitSet();
+        for (String code : countries) candidates.or(coverage.candidates(coverage.countryBit(code)));
+        return candidates;
+    }
+
+    private void rebuild(Map<String, Integer> days) {
+        CoverageIndex coverage = snapshot.coverage();
+        cand = candidates(coverage, days.keySet()).stream().toArray();
+        coveredDays = new int[cand.length];
+        for (var e : days.entrySet()) {
+            int bit = coverage.countryBit(e.getKey());
+            for (int k = 0; k < cand.length; k++) {
+                if (coverage.covers(cand[k], bit)) coveredDays[k] += e.getValue();
+            }
+        }
+        countryDays = days;
+        lastRecomputedPacks = cand.length;
+    }
+
+    // Itinerary.of ile aynı indirgeme: aynı ülkedeki bacakların günleri toplanır
+    private static Map<String, Integer> countryDays(List<SimulationRequest.Leg> legs) {
+        Map<String, Integer> days = new HashMap<>();
+        legs.forEach(l -> days.merge(l.countryCode(), PricingEngine.countDaysInclusive(l), Integer::sum));
+        return days;
+    }
+}
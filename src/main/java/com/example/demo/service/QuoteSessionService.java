@@ -0,0 +1,262 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.QuoteDelta;
+import com.example.demo.dto.QuoteResponse;
+import com.example.demo.dto.SimulationRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Etkileşimli planlama için sunucuda tutulan teklifler. İstemci teklifi bir kez oluşturur, sonra
+ * sadece değişiklik (bacak ekle/değiştir/sil, profil) gönderir. Her teklif bir QuotePricer tutar:
+ * bacak değişikliğinde sadece gün sayısı değişen ülkeleri kapsayan paketlerin kısmi sonucu güncellenir,
+ * fiyatlar /api/simulate ile aynı modelle (PricingEngine) üretilir; yanıt saklanmaz, her istekte üretilir.
+ * Katalog değiştiyse bir sonraki erişimde yeni snapshot ile yeniden kurulur.
+ * <p>
+ * Teklifler hem sayıyla (max-sessions) hem tahmini bellekle (max-bytes: bacaklar + aday başına kısmi sonuç)
+ * sınırlı bir LRU haritada tutulur; tek başına bütçeyi aşan teklif reddedilir, boşta kalanlar periyodik olarak silinir.
+ */
+@Service
+@Slf4j
+public class QuoteSessionService {
+
+    private static final class Session {
+        final String id;
+        final List<SimulationRequest.Leg> legs;
+        SimulationRequest.UsageProfileDto profile;
+        final int limit;
+        QuotePricer pricer;
+        long snapshotVersion;
+        long bytes; // tahmini boyut; sessions kilidiyle korunur
+        long revision;
+        volatile long lastAccess;
+
+        Session(String id, List<SimulationRequest.Leg> legs, SimulationRequest.UsageProfileDto profile, int limit) {
+            this.id = id;
+            this.legs = legs;
+            this.profile = profile;
+            this.limit = limit;
+        }
+    }
+
+    private final PricingSnapshotService snapshotService;
+    private final ComboSolver.Limits comboLimits;
+    private final int maxSessions;
+    private final long maxBytes;
+    private final long idleTimeoutNanos;
+    private final Map<String, Session> sessions;
+    private long totalBytes; // sessions kilidiyle korunur
+
+    public QuoteSessionService(PricingSnapshotService snapshotService,
+                               ComboSolver.Limits comboLimits,
+                               @Value("${quote.session.max-sessions:10000}") int maxSessions,
+                               @Value("${quote.session.max-bytes:64MB}") DataSize maxBytes,
+                               @Value("${quote.session.idle-timeout:PT30M}") Duration idleTimeout) {
+        if (maxSessions <= 0) throw new IllegalArgumentException("quote.session.max-sessions must be > 0");
+        if (maxBytes.toBytes() <= 0) throw new IllegalArgumentException("quote.session.max-bytes must be > 0");
+        this.snapshotService = snapshotService;
+        this.comboLimits = comboLimits;
+        this.maxSessions = maxSessions;
+        this.maxBytes = maxBytes.toBytes();
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.sessions = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Session> eldest) {
+                if (size() <= QuoteSessionService.this.maxSessions) return false;
+                totalBytes -= eldest.getValue().bytes;
+                return true;
+            }
+        };
+    }
+
+    // Tahmini oturum boyutu: sabit kısım + bacak başına (bacak kaydı, ülke günü) + aday başına kısmi sonuç
+    static long estimateBytes(int legs, int candidates) {
+        return 512 + 160L * legs + 8L * candidates;
+    }
+
+    public QuoteResponse create(SimulationRequest req) {
+        if (req.trips() == null || req.trips().isEmpty()) throw new IllegalArgumentException("trips must not be empty");
+        req.trips().forEach(QuoteSessionService::validateLeg);
+        validateProfile(req.profile());
+        int limit = req.limitOrAll();
+        if (limit < 0) throw new IllegalArgumentException("limit must be >= 0");
+        checkSize(req.trips());
+        Session s = new Session(UUID.randomUUID().toString(), new ArrayList<>(req.trips()), req.profile(), limit);
+        synchronized (s) {
+            rebuild(s);
+            s.lastAccess = System.nanoTime();
+            synchronized (sessions) {
+                sessions.put(s.id, s);
+            }
+            account(s);
+            return response(s);
+        }
+    }
+
+    public QuoteResponse get(String quoteId) {
+        Session s = session(quoteId);
+        synchronized (s) {
+            if (s.snapshotVersion != snapshotService.current().version()) {
+                rebuild(s);
+                account(s);
+            }
+            return response(s);
+        }
+    }
+
+    // Değişiklikler sırayla uygulanır; biri geçersizse hiçbiri uygulanmaz
+    public QuoteResponse apply(String quoteId, List<QuoteDelta> deltas) {
+        if (deltas == null || deltas.isEmpty()) throw new IllegalArgumentException("deltas must not be empty");
+        Session s = session(quoteId);
+        synchronized (s) {
+            List<SimulationRequest.Leg> legs = new ArrayList<>(s.legs);
+            SimulationRequest.UsageProfileDto profile = s.profile;
+            for (QuoteDelta d : deltas) {
+                switch (d.op() == null ? "" : d.op()) {
+                    case "addLeg" -> legs.add(requireLeg(d));
+                    case "updateLeg" -> legs.set(requireIndex(d, legs), requireLeg(d));
+                    case "removeLeg" -> legs.remove(requireIndex(d, legs));
+                    case "setProfile" -> {
+                        validateProfile(d.profile());
+                        profile = d.profile();
+                    }
+                    default -> throw new IllegalArgumentException("Unknown delta op: " + d.op());
+                }
+            }
+            if (legs.isEmpty()) throw new IllegalArgumentException("trips must not be empty");
+            checkSize(legs);
+
+            s.legs.clear();
+            s.legs.addAll(legs);
+            s.profile = profile;
+            if (s.snapshotVersion != snapshotService.current().version()) rebuild(s);
+            else s.pricer.replaceLegs(s.legs);
+            s.revision++;
+            account(s);
+            return response(s);
+        }
+    }
+
+    public void close(String quoteId) {
+        synchronized (sessions) {
+            Session s = sessions.remove(quoteId);
+            if (s != null) totalBytes -= s.bytes;
+        }
+    }
+
+    public int size() {
+        synchronized (sessions) {
+            return sessions.size();
+        }
+    }
+
+    public long estimatedBytes() {
+        synchronized (sessions) {
+            return totalBytes;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${quote.session.purge-interval:PT1M}")
+    public void purgeIdle() {
+        long now = System.nanoTime();
+        int removed = 0;
+        synchronized (sessions) {
+            Iterator<Session> it = sessions.values().iterator();
+            while (it.hasNext()) {
+                Session s = it.next();
+                if (now - s.lastAccess > idleTimeoutNanos) {
+                    it.remove();
+                    totalBytes -= s.bytes;
+                    removed++;
+                }
+            }
+        }
+        if (removed > 0) log.debug("Purged {} idle quote sessions", removed);
+    }
+
+    private Session session(String quoteId) {
+        Session s;
+        synchronized (sessions) {
+            s = sessions.get(quoteId);
+        }
+        if (s == null || System.nanoTime() - s.lastAccess > idleTimeoutNanos) {
+            throw new IllegalArgumentException("Quote not found or expired: " + quoteId);
+        }
+        s.lastAccess = System.nanoTime();
+        return s;
+    }
+
+    // Tek başına bütçeyi aşacak teklif (çok sayıda bacak/aday) kabul edilmez
+    private void checkSize(List<SimulationRequest.Leg> legs) {
+        long bytes = estimateBytes(legs.size(), QuotePricer.candidateCount(snapshotService.current(), legs));
+        if (bytes > maxBytes) {
+            throw new IllegalArgumentException("Quote too large: ~" + bytes + " bytes exceeds quote.session.max-bytes");
+        }
+    }
+
+    // Oturumun tahmini boyutu güncellenir; toplam bütçeyi aşarsa en uzun süredir kullanılmayanlar (bu hariç) çıkarılır
+    private void account(Session s) {
+        long bytes = estimateBytes(s.legs.size(), s.pricer.candidates());
+        int evicted = 0;
+        synchronized (sessions) {
+            if (sessions.get(s.id) != s) return; // bu arada kapatıldı veya çıkarıldı
+            totalBytes += bytes - s.bytes;
+            s.bytes = bytes;
+            Iterator<Session> it = sessions.values().iterator();
+            while (totalBytes > maxBytes && it.hasNext()) {
+                Session eldest = it.next();
+                if (eldest == s) continue;
+                it.remove();
+                totalBytes -= eldest.bytes;
+                evicted++;
+            }
+        }
+        if (evicted > 0) log.debug("Evicted {} quote sessions over quote.session.max-bytes", evicted);
+    }
+
+    private void rebuild(Session s) {
+        PricingSnapshot snapshot = snapshotService.current();
+        s.pricer = new QuotePricer(snapshot, comboLimits, s.legs);
+        s.snapshotVersion = snapshot.version();
+    }
+
+    private static QuoteResponse response(Session s) {
+        return new QuoteResponse(s.id, s.revision, List.copyOf(s.legs), s.pricer.lastRecomputedPacks(),
+                s.pricer.response(List.copyOf(s.legs), s.profile, s.limit));
+    }
+
+    private static SimulationRequest.Leg requireLeg(QuoteDelta d) {
+        var leg = d.leg();
+        if (leg == null || leg.countryCode() == null || leg.startDate() == null || leg.endDate() == null) {
+            throw new IllegalArgumentException(d.op() + " requires leg with countryCode, startDate and endDate");
+        }
+        validateLeg(leg);
+        return leg;
+    }
+
+    private static void validateLeg(SimulationRequest.Leg leg) {
+        if (leg.countryCode() == null || leg.startDate() == null || leg.endDate() == null) {
+            throw new IllegalArgumentException("leg requires countryCode, startDate and endDate");
+        }
+        if (leg.endDate().isBefore(leg.startDate())) throw new IllegalArgumentException("endDate must be >= startDate");
+    }
+
+    private static int requireIndex(QuoteDelta d, List<SimulationRequest.Leg> legs) {
+        if (d.index() == null || d.index() < 0 || d.index() >= legs.size()) {
+            throw new IllegalArgumentException(d.op() + " requires index in [0, " + legs.size() + ")");
+        }
+        return d.index();
+    }
+
+    private static void validateProfile(SimulationRequest.UsageProfileDto p) {
+        if (p == null || p.avgDailyMb() == null || p.avgDailyMin() == null || p.avgDailySms() == null) {
+            throw new IllegalArgumentException("profile with avgDailyMb, avgDailyMin and avgDailySms is required");
+        }
+    }
+}
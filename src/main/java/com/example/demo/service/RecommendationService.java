@@ -3,13 +3,11 @@ package com.example.demo.service;
 import com.example.demo.dto.RecommendationResponse;
 import com.example.demo.dto.SimulationRequest;
 import com.example.demo.dto.SimulationResponse;
-import com.example.demo.entity.RoamingPack;
-import com.example.demo.repository.RoamingPackRepository;
 import com.example.demo.service.SimulationService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
@@ -17,11 +15,11 @@ import java.util.List;
 public class RecommendationService{
 
     private final SimulationService simulationService;
-    private final RoamingPackRepository packRepo;
 
     public RecommendationResponse recommendTop3(SimulationRequest req) {
-        SimulationResponse sim = simulationService.simulate(req);
-        var top = new LinkedList<RecommendationResponse.Item>();
+        // Sadece ilk 3 seçenek gerekli: simülasyon tam sıralama yerine en iyi 3'ü seçer
+        SimulationResponse sim = simulationService.simulate(req.withLimit(3));
+        var top = new ArrayList<RecommendationResponse.Item>(3);
 
         sim.options().stream().limit(3).forEach(opt -> {
             String label;
@@ -30,9 +28,13 @@ public class RecommendationService{
             if ("payg".equals(opt.kind())) {
                 label = "PAYG (ülke bazlı tekil ücret)";
                 explanation = "Paket almadan kullanıma göre ücretlendirme.";
+            } else if ("combo".equals(opt.kind())) {
+                label = opt.packName() + " (" + opt.currency() + ")";
+                explanation = "Gün bazında " + opt.nPacks() + " paket alımı"
+                        + (opt.coverageHit() ? "; tüm günler paketle kapsanıyor." : "; kapsanmayan günler PAYG.");
             } else {
-                var pack = packRepo.findById(opt.packId()).orElse(null);
-                String pName = (pack != null ? pack.getName() : ("Pack#" + opt.packId()));
+                // Paket adı simülasyon sonucunda gelir; veritabanına tekrar gidilmez
+                String pName = (opt.packName() != null ? opt.packName() : ("Pack#" + opt.packId()));
                 label = pName + " x" + opt.nPacks() + " (" + opt.currency() + ")";
                 explanation = (opt.validityOk() ? "Validity uygun" : "Validity kısa, çoklu paket önerildi")
                         + (opt.coverageHit() ? ", kapsama uygun" : ", kapsama kısmi");
@@ -0,0 +1,74 @@
+package com.example.demo.service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Tek değer tutan, TTL ile süresi dolan ve elle geçersiz kılınabilen önbellek.
+ * Değer volatile bir referansla yayınlanır; boş önbellekte aynı anda gelen istekler
+ * için yükleme sadece bir kez yapılır (single-flight), diğerleri sonucu bekler.
+ */
+public final class RefreshableCache<T> {
+
+    private record Entry<T>(T value, long loadedAt) {
+    }
+
+    public record Stats(long hits, long misses, long loads, long invalidations) {
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : hits / (double) total;
+        }
+    }
+
+    private final Supplier<T> loader;
+    private final long ttlNanos;
+    private final Object loadLock = new Object();
+
+    private volatile Entry<T> entry;
+    private volatile long generation;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    // ttl sıfır veya negatifse değer sadece invalidate() ile düşer
+    public RefreshableCache(Supplier<T> loader, Duration ttl) {
+        this.loader = loader;
+        this.ttlNanos = ttl == null ? 0 : ttl.toNanos();
+    }
+
+    public T get() {
+        Entry<T> e = entry;
+        if (isFresh(e)) {
+            hits.incrementAndGet();
+            return e.value();
+        }
+        misses.incrementAndGet();
+        synchronized (loadLock) {
+            e = entry;
+            if (isFresh(e)) return e.value(); // başka bir thread az önce yükledi
+            long gen = generation;
+            T value = loader.get();
+            loads.incrementAndGet();
+            // Yükleme sırasında invalidate() geldiyse eski veriyi önbelleğe koyma
+            if (gen == generation) entry = new Entry<>(value, System.nanoTime());
+            return value;
+        }
+    }
+
+    public void invalidate() {
+        generation++;
+        entry = null;
+        invalidations.incrementAndGet();
+    }
+
+    public Stats stats() {
+        return new Stats(hits.get(), misses.get(), loads.get(), invalidations.get());
+    }
+
+    private boolean isFresh(Entry<T> e) {
+        return e != null && (ttlNanos <= 0 || System.nanoTime() - e.loadedAt() < ttlNanos);
+    }
+}
@@ -0,0 +1,303 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.SimulationRequest;
+import com.example.demo.dto.SweepRequest;
+import com.example.demo.dto.SweepResponse;
+import com.example.demo.entity.RoamingPack;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static java.lang.Math.ceil;
+import static java.lang.Math.max;
+
+/**
+ * Kullanım profili ızgarasının tek geçişte fiyatlanması (PricingEngine'in tek paket + PAYG seçenekleri).
+ * <p>
+ * Trip sabitken paket sayısı, kapsanan gün ve PAYG oranları profile bağlı değildir; bir seçeneğin
+ * maliyeti eksenlere ayrışır: taban + f(mb) + g(min) + h(sms). Her terim parçalı doğrusaldır
+ * (kapsanmayan pay eğimi, kota dolduktan sonra tam PAYG eğimi eklenir), tek kırılımı kotanın
+ * güne bölündüğü noktadadır. Yüzey paket başına eksen dizileriyle hesaplanır; breakpoint'ler
+ * alt zarf üzerinde analitik olarak (doğru kesişimleri) bulunur.
+ * Kombinasyon (ComboSolver) planı seçilen gün aralıklarına bağlı olduğundan taramaya dahil değildir.
+ */
+public final class SensitivitySweep {
+
+    static final String[] AXES = {"avgDailyMb", "avgDailyMin", "avgDailySms"};
+
+    private SensitivitySweep() {
+    }
+
+    // Bir eksen boyunca seçenek maliyeti: lin*x + over*max(0, x - kink)
+    private static final class Options {
+        final int n; // paket sayısı; n. seçenek PAYG
+        final int[] packIndex;
+        final double[] base;
+        final double[][] lin = new double[3][];
+        final double[][] over = new double[3][];
+        final double[][] kink = new double[3][];
+        final int[] coveredDays;
+        final boolean[] validityOk;
+
+        Options(int n) {
+            this.n = n;
+            packIndex = new int[n];
+            base = new double[n + 1];
+            coveredDays = new int[n + 1];
+            validityOk = new boolean[n + 1];
+            for (int a = 0; a < 3; a++) {
+                lin[a] = new double[n + 1];
+                over[a] = new double[n + 1];
+                kink[a] = new double[n + 1];
+            }
+        }
+
+        double axis(int a, int k, double x) {
+            return lin[a][k] * x + over[a][k] * max(0.0, x - kink[a][k]);
+        }
+
+        double slopeAfter(int a, int k, double x) {
+            return lin[a][k] + (x >= kink[a][k] ? over[a][k] : 0.0);
+        }
+
+        // PricingEngine ile aynı eşitlik kuralı: kapsanan gün ↓, validity uygun önce, ekleme sırası (PAYG en son)
+        boolean tieBefore(int a, int b) {
+            if (coveredDays[a] != coveredDays[b]) return coveredDays[a] > coveredDays[b];
+            if (validityOk[a] != validityOk[b]) return validityOk[a];
+            return a < b;
+        }
+    }
+
+    // Aralıktaki değer sayısı; diziler ayrılmadan önce ızgara boyutu bununla sınırlanır
+    static long count(SweepRequest.Range r, String name) {
+        if (r == null || r.from() == null) throw new IllegalArgumentException(name + ".from is required");
+        long from = r.from();
+        long to = r.to() == null ? from : r.to();
+        if (from < 0) throw new IllegalArgumentException(name + " must be >= 0");
+        if (to < from) throw new IllegalArgumentException(name + ".to must be >= from");
+        if (r.step() == null || to == from) return 1;
+        if (r.step() <= 0) throw new IllegalArgumentException(name + ".step must be > 0");
+        return (to - from) / r.step() + 1;
+    }
+
+    static int[] values(SweepRequest.Range r, int count) {
+        int[] v = new int[count];
+        for (int i = 0; i < count; i++) v[i] = r.from() + i * (count > 1 ? r.step() : 0);
+        return v;
+    }
+
+    public static SweepResponse sweep(SweepRequest req, PricingSnapshot snapshot, int maxPoints) {
+        if (req.trips() == null || req.trips().isEmpty())
+            throw new IllegalArgumentException("trips must contain at least one leg");
+        SweepRequest.Range[] ranges = {req.avgDailyMb(), req.avgDailyMin(), req.avgDailySms()};
+        long[] counts = new long[3];
+        for (int a = 0; a < 3; a++) counts[a] = count(ranges[a], AXES[a]);
+        // Her eksen en fazla maxPoints olduğundan ara çarpımlar long'a sığar
+        long points = counts[0] > maxPoints || counts[1] > maxPoints ? Long.MAX_VALUE : counts[0] * counts[1];
+        if (points <= maxPoints) points = counts[2] > maxPoints ? Long.MAX_VALUE : points * counts[2];
+        if (points > maxPoints) throw new IllegalArgumentException("Sweep too large: " + counts[0] + " x " + counts[1]
+                + " x " + counts[2] + " points > " + maxPoints);
+        int[][] xs = new int[3][];
+        for (int a = 0; a < 3; a++) xs[a] = values(ranges[a], (int) counts[a]);
+
+        // Profil sadece ihtiyaçları ölçekler; oranlar ve kapsama için sıfır profille indirgenir
+        var zero = new SimulationRequest.UsageProfileDto(0, 0, 0);
+        Itinerary it = Itinerary.of(new SimulationRequest(null, req.trips(), zero), snapshot);
+        if (it.totalDays <= 0) throw new IllegalArgumentException("Trip must be at least one day");
+        Options o = options(it, snapshot);
+
+        List<RoamingPack> packs = snapshot.packs();
+        int[] best = surface(o, xs);
+        List<SweepResponse.Point> surface = new ArrayList<>((int) points);
+        int g = 0;
+        for (int mb : xs[0]) for (int min : xs[1]) for (int sms : xs[2]) {
+            int k = best[g++];
+            double cost = round2(o.base[k] + o.axis(0, k, mb) + o.axis(1, k, min) + o.axis(2, k, sms));
+            surface.add(new SweepResponse.Point(mb, min, sms, choice(o, packs, k), cost));
+        }
+
+        // Breakpoint'ler: her eksen kendi aralığında, diğerleri baseline'da (yoksa aralık başları)
+        var b = req.baseline();
+        double[] at = {
+                b != null && b.avgDailyMb() != null ? b.avgDailyMb() : xs[0][0],
+                b != null && b.avgDailyMin() != null ? b.avgDailyMin() : xs[1][0],
+                b != null && b.avgDailySms() != null ? b.avgDailySms() : xs[2][0]};
+        List<SweepResponse.Breakpoint> breakpoints = new ArrayList<>();
+        for (int a = 0; a < 3; a++) {
+            int[] v = xs[a];
+            if (v.length > 1) envelope(o, packs, a, at, v[0], v[v.length - 1], breakpoints);
+        }
+        return new SweepResponse(it.totalDays, List.copyOf(surface), List.copyOf(breakpoints));
+    }
+
+    // Aday paketlerin eksen katsayıları; formül PricingEngine.packTotal'ın eksenlere açılmış hâlidir
+    private static Options options(Itinerary it, PricingSnapshot snapshot) {
+        PackTable t = snapshot.packTable();
+        BitSet candidates = new BitSet();
+        it.collectCandidates(snapshot.coverage(), candidates);
+        Options o = new Options(candidates.cardinality());
+        double d = it.totalDays;
+        double[] rate = {it.dataPerMb, it.voicePerMin, it.smsPerMsg};
+        int k = 0;
+        for (int pi = candidates.nextSetBit(0); pi >= 0; pi = candidates.nextSetBit(pi + 1)) {
+            int covered = it.coveredDays(snapshot.coverage(), pi);
+            int nPacks = (int) ceil(it.totalDays / (double) t.validityDays[pi]);
+            double uncoveredShare = 1.0 - covered / d;
+            // Günlük kullanım cinsinden kotalar (veri MB)
+            double[] quota = {nPacks * t.dataGb[pi] * 1024, nPacks * t.voiceMin[pi], nPacks * t.sms[pi]};
+            o.packIndex[k] = pi;
+            o.base[k] = t.price[pi] * nPacks;
+            o.coveredDays[k] = covered;
+            o.validityOk[k] = it.totalDays <= t.validityDays[pi];
+            for (int a = 0; a < 3; a++) {
+                o.lin[a][k] = uncoveredShare * d * rate[a];
+                o.over[a][k] = d * rate[a];
+                o.kink[a][k] = quota[a] / d;
+            }
+            k++;
+        }
+        int n = o.n;
+        o.coveredDays[n] = it.totalDays;
+        o.validityOk[n] = true;
+        for (int a = 0; a < 3; a++) {
+            o.lin[a][n] = d * rate[a];
+            o.kink[a][n] = Double.POSITIVE_INFINITY;
+        }
+        return o;
+    }
+
+    /**
+     * Izgaranın her noktası için en ucuz seçenek (sms en içte). Seçenek başına eksen dizileri bir kez
+     * hesaplanır, iç döngü düz dizi toplamıdır. Maliyet her eksende azalmadığı için seçeneğin ızgaradaki
+     * en düşük maliyeti ilk noktadadır; bu, mevcut en kötü en iyiden pahalıysa seçenek atlanır.
+     */
+    private static int[] surface(Options o, int[][] xs) {
+        int nm = xs[0].length, nv = xs[1].length, ns = xs[2].length;
+        int size = nm * nv * ns;
+        int[] best = new int[size];
+        double[] bestCost = new double[size];
+        double[] fm = new double[nm], fv = new double[nv], fs = new double[ns];
+
+        fill(o, o.n, xs, fm, fv, fs);
+        double worst = 0;
+        for (int i = 0, g = 0; i < nm; i++) for (int j = 0; j < nv; j++) {
+            double row = o.base[o.n] + fm[i] + fv[j];
+            for (int s = 0; s < ns; s++, g++) {
+                best[g] = o.n;
+                bestCost[g] = round2(row + fs[s]);
+                worst = max(worst, bestCost[g]);
+            }
+        }
+        for (int k = 0; k < o.n; k++) {
+            double floor = o.base[k] + o.axis(0, k, xs[0][0]) + o.axis(1, k, xs[1][0]) + o.axis(2, k, xs[2][0]);
+            if (round2(floor) > worst) continue;
+            fill(o, k, xs, fm, fv, fs);
+            boolean improved = false;
+            for (int i = 0, g = 0; i < nm; i++) for (int j = 0; j < nv; j++) {
+                double row = o.base[k] + fm[i] + fv[j];
+                for (int s = 0; s < ns; s++, g++) {
+                    double c = round2(row + fs[s]);
+                    if (c < bestCost[g] || (c == bestCost[g] && o.tieBefore(k, best[g]))) {
+                        bestCost[g] = c;
+                        best[g] = k;
+                        improved = true;
+                    }
+                }
+            }
+            if (improved) {
+                worst = 0;
+                for (double c : bestCost) worst = max(worst, c);
+            }
+        }
+        return best;
+    }
+
+    private static void fill(Options o, int k, int[][] xs, double[] fm, double[] fv, double[] fs) {
+        for (int i = 0; i < fm.length; i++) fm[i] = o.axis(0, k, xs[0][i]);
+        for (int i = 0; i < fv.length; i++) fv[i] = o.axis(1, k, xs[1][i]);
+        for (int i = 0; i < fs.length; i++) fs[i] = o.axis(2, k, xs[2][i]);
+    }
+
+    /**
+     * Eksen a boyunca [from, to] aralığında alt zarfın değiştiği noktalar. O anki en ucuz seçenekten
+     * başlanır; her seçenek için farkın (parçalı doğrusal, en fazla iki kırılım) sıfırı negatif eğimle
+     * geçtiği ilk nokta hesaplanır, en erkeni sonraki breakpoint'tir. Maliyet: O(seçenek × değişim).
+     */
+    private static void envelope(Options o, List<RoamingPack> packs, int a, double[] at, double from, double to,
+                                 List<SweepResponse.Breakpoint> into) {
+        int n = o.n;
+        double[] fixed = new double[n + 1];
+        for (int k = 0; k <= n; k++) {
+            fixed[k] = o.base[k];
+            for (int other = 0; other < 3; other++) if (other != a) fixed[k] += o.axis(other, k, at[other]);
+        }
+
+        // Başlangıç: en ucuz; eşitlikte from'dan sonra daha yavaş artan (yoksa eşitlik kuralı)
+        int cur = n;
+        for (int k = 0; k < n; k++) {
+            double c = fixed[k] + o.axis(a, k, from), b = fixed[cur] + o.axis(a, cur, from);
+            if (c < b - EPS) cur = k;
+            else if (Math.abs(c - b) <= EPS) {
+                double sk = o.slopeAfter(a, k, from), sc = o.slopeAfter(a, cur, from);
+                if (sk < sc || (sk == sc && o.tieBefore(k, cur))) cur = k;
+            }
+        }
+
+        double x = from;
+        while (x < to) {
+            double next = Double.POSITIVE_INFINITY;
+            int nextK = -1;
+            double nextSlope = 0;
+            for (int k = 0; k <= n; k++) {
+                if (k == cur) continue;
+                double t = firstCrossing(o, a, fixed, k, cur, x, to);
+                if (t > next + EPS) continue;
+                double slope = o.slopeAfter(a, k, t);
+                if (t < next - EPS || slope < nextSlope || (slope == nextSlope && o.tieBefore(k, nextK))) {
+                    next = t;
+                    nextK = k;
+                    nextSlope = slope;
+                }
+            }
+            if (nextK < 0) break;
+            into.add(new SweepResponse.Breakpoint(AXES[a], round2(next),
+                    choice(o, packs, cur), choice(o, packs, nextK)));
+            cur = nextK;
+            x = next;
+        }
+    }
+
+    // (x, to] içinde k'nın cur'dan ucuzlaştığı ilk nokta; yoksa +∞
+    private static double firstCrossing(Options o, int a, double[] fixed, int k, int cur, double x, double to) {
+        double k1 = o.kink[a][k], k2 = o.kink[a][cur];
+        double lo = x;
+        for (int piece = 0; piece < 3 && lo < to; piece++) {
+            // Parça sonu: lo'dan sonraki ilk kırılım ya da to
+            double hi = to;
+            if (k1 > lo && k1 < hi) hi = k1;
+            if (k2 > lo && k2 < hi) hi = k2;
+            double diff = fixed[k] + o.axis(a, k, lo) - fixed[cur] - o.axis(a, cur, lo);
+            double slope = o.slopeAfter(a, k, lo) - o.slopeAfter(a, cur, lo);
+            if (slope < 0) {
+                // x'teki eşitlikler seçimde eğimle çözülmüştür; sadece x'ten sonraki geçişler sayılır
+                double t = lo + max(0.0, diff) / -slope;
+                if (t <= hi && t > x + EPS) return t;
+            }
+            lo = hi;
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+
+    private static SweepResponse.Choice choice(Options o, List<RoamingPack> packs, int k) {
+        if (k == o.n) return new SweepResponse.Choice("payg", null, null);
+        RoamingPack p = packs.get(o.packIndex[k]);
+        return new SweepResponse.Choice("pack", p.getPackId(), p.getName());
+    }
+
+    private static final double EPS = 1e-9;
+
+    private static double round2(double v) {
+        return Math.round(v * 100.0) / 100.0;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.SweepRequest;
+import com.example.demo.dto.SweepResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+@Service
+public class SensitivitySweepService {
+
+    private final PricingSnapshotService snapshotService;
+    private final int maxPoints;
+
+    public SensitivitySweepService(PricingSnapshotService snapshotService,
+                                   @Value("${simulation.sweep.max-points:10000}") int maxPoints) {
+        this.snapshotService = snapshotService;
+        this.maxPoints = maxPoints;
+    }
+
+    // Izgara tek snapshot üzerinde, N ayrı simülasyon yerine tek geçişte fiyatlanır
+    public SweepResponse sweep(SweepRequest req) {
+        return SensitivitySweep.sweep(req, snapshotService.current(), maxPoints);
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.SimulationRequest;
+import com.example.demo.dto.SimulationResponse;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Sık görülen tek ülkeli teklifler için SimulationLookupTable'ı tutar. Tablo açılışta, her katalog
+ * yenilemesinde ve lookup snapshot'tan eski bir tablo gördüğünde arka planda yeniden kurulur (ilk snapshot
+ * olayı dinleyiciler kaydolmadan yayınlandığı için açılış ve versiyon kontrolü gerekir). Kurulum
+ * ülke × gün × profil kadar tam simülasyon yaptığından istek havuzunu (simulationExecutor) meşgul etmemesi
+ * için kendi tek thread'inde çalışır; bitene kadar istekler tam simülasyona düşer.
+ */
+@Service
+@Slf4j
+public class SimulationLookupService {
+
+    private final PricingSnapshotService snapshotService;
+    private final ExecutorService executor;
+    private final SimulationLookupTable.Settings settings;
+    private final ComboSolver.Limits comboLimits;
+
+    private final AtomicReference<SimulationLookupTable> table = new AtomicReference<>(SimulationLookupTable.EMPTY);
+    // Kuyruğa alınmış en yeni versiyon; aynı versiyon iki kez kurulmaz
+    private final AtomicLong scheduled = new AtomicLong(-1);
+
+    public SimulationLookupService(PricingSnapshotService snapshotService,
+                                   SimulationLookupTable.Settings settings,
+                                   ComboSolver.Limits comboLimits) {
+        this.snapshotService = snapshotService;
+        this.settings = settings;
+        this.comboLimits = comboLimits;
+        // Thread ilk kurulumda oluşur; kapalı ayarda hiç oluşmaz
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "simulation-lookup");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // Tabloda yoksa null
+    public SimulationResponse lookup(SimulationRequest req, PricingSnapshot snapshot) {
+        if (!settings.enabled()) return null;
+        SimulationLookupTable current = table.get();
+        if (current.version() != snapshot.version()) {
+            schedule(snapshot.version());
+            return null;
+        }
+        return current.lookup(req, snapshot);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if (!settings.enabled()) return;
+        // Snapshot ilk kez burada yüklenebilir (DB); açılışı bekletmemek ve düşürmemek için kurulum thread'inde okunur
+        executor.execute(() -> {
+            try {
+                schedule(snapshotService.current().version());
+            } catch (RuntimeException e) {
+                log.warn("Simulation lookup table not built at startup; requests use full simulation", e);
+            }
+        });
+    }
+
+    @EventListener
+    public void onCatalogRefreshed(CatalogRefreshedEvent event) {
+        if (settings.enabled()) schedule(event.version());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void schedule(long version) {
+        long prev = scheduled.get();
+        while (prev < version) {
+            if (scheduled.compareAndSet(prev, version)) {
+                executor.execute(() -> rebuild(version));
+                return;
+            }
+            prev = scheduled.get();
+        }
+    }
+
+    // Bu arada daha yeni bir snapshot yayınlandıysa onun olayı kendi kurulumunu yapar
+    void rebuild(long version) {
+        PricingSnapshot snapshot = snapshotService.current();
+        if (snapshot.version() != version) return;
+        try {
+            long started = System.nanoTime();
+            SimulationLookupTable next = SimulationLookupTable.build(snapshot, settings, comboLimits);
+            // Eski bir kurulum yenisinin üzerine yazmasın
+            table.accumulateAndGet(next, (cur, n) -> n.version() >= cur.version() ? n : cur);
+            log.info("Simulation lookup table v{} built: {} cells in {} ms",
+                    version, next.cells(), (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.warn("Simulation lookup table v{} could not be built; requests use full simulation", version, e);
+        }
+    }
+}
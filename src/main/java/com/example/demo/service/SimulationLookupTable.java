@@ -0,0 +1,186 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.SimulationRequest;
+import com.example.demo.dto.SimulationResponse;
+import com.example.demo.entity.RoamingPack;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Tek bacaklı (tek ülke) teklifler için önceden hesaplanmış sıralı seçenekler: ülke × gün (1..maxDays) ×
+ * profil kovası. Hücre başına sadece sıralama (paket indeksi, PAYG için -1) ve yuvarlanmış maliyet düz
+ * dizilerde tutulur; Option nesneleri ve uyarılar istek anında, döndürülen seçenekler için üretilir.
+ * <p>
+ * Sonuç PricingEngine.simulate ile aynıdır. Profil kovalardan biriyle birebir eşleşmiyorsa, trip tabloya
+ * uymuyorsa ya da snapshot versiyonu farklıysa lookup null döner ve tam simülasyon yapılır.
+ */
+public final class SimulationLookupTable {
+
+    // maxOptions: hücre başına saklanan en fazla seçenek; aday sayısı daha fazlaysa limitsiz istekler tabloya düşmez
+    public record Settings(boolean enabled, int maxDays, int maxOptions, List<SimulationRequest.UsageProfileDto> profiles) {
+        public static final Settings DISABLED = new Settings(false, 0, 0, List.of());
+    }
+
+    public static final SimulationLookupTable EMPTY = new SimulationLookupTable(0L, 0, Map.of(), Map.of(),
+            new int[0], new boolean[0], new int[0], new int[0], new double[0], Map.of(), new BitSet());
+
+    // Hücreler bu tarihte başlayan trip ile hesaplanır; combo alımlarının tarihleri istekte kaydırılır
+    private static final LocalDate REFERENCE = LocalDate.of(2000, 1, 1);
+
+    private final long version;
+    private final int maxDays;
+    private final Map<String, Integer> countryIndex;
+    private final Map<SimulationRequest.UsageProfileDto, Integer> profileIndex;
+    private final int[] width;     // ülke başına hücre genişliği (saklanan seçenek)
+    private final boolean[] full;  // ülkenin tüm seçenekleri saklandı mı
+    private final int[] offset;    // ülkenin ilk hücresinin dizilerdeki konumu
+    private final int[] ranked;
+    private final double[] cost;
+    private final Map<Integer, SimulationResponse.Option> combos; // hücre → combo seçeneği (seyrek)
+    private final BitSet comboTruncated;
+
+    private SimulationLookupTable(long version, int maxDays, Map<String, Integer> countryIndex,
+                                  Map<SimulationRequest.UsageProfileDto, Integer> profileIndex,
+                                  int[] width, boolean[] full, int[] offset, int[] ranked, double[] cost,
+                                  Map<Integer, SimulationResponse.Option> combos, BitSet comboTruncated) {
+        this.version = version;
+        this.maxDays = maxDays;
+        this.countryIndex = countryIndex;
+        this.profileIndex = profileIndex;
+        this.width = width;
+        this.full = full;
+        this.offset = offset;
+        this.ranked = ranked;
+        this.cost = cost;
+        this.combos = combos;
+        this.comboTruncated = comboTruncated;
+    }
+
+    public static SimulationLookupTable build(PricingSnapshot snapshot, Settings settings, ComboSolver.Limits comboLimits) {
+        List<String> countries = new ArrayList<>(snapshot.countries().keySet());
+        List<SimulationRequest.UsageProfileDto> profiles = List.copyOf(new LinkedHashSet<>(settings.profiles()));
+        int maxDays = settings.maxDays();
+        int buckets = profiles.size();
+
+        Map<String, Integer> countryIndex = new HashMap<>();
+        Map<SimulationRequest.UsageProfileDto, Integer> profileIndex = new HashMap<>();
+        for (int b = 0; b < buckets; b++) profileIndex.put(profiles.get(b), b);
+
+        // Hücre genişliği ülkenin aday paket sayısından bellidir (+1 PAYG)
+        int[] width = new int[countries.size()];
+        boolean[] full = new boolean[countries.size()];
+        int[] offset = new int[countries.size()];
+        long size = 0;
+        for (int ci = 0; ci < countries.size(); ci++) {
+            countryIndex.put(countries.get(ci), ci);
+            int options = snapshot.coverage().candidates(snapshot.coverage().countryBit(countries.get(ci))).cardinality() + 1;
+            full[ci] = options <= settings.maxOptions();
+            width[ci] = Math.min(options, settings.maxOptions());
+            offset[ci] = (int) size;
+            size += (long) width[ci] * maxDays * buckets;
+            if (size > Integer.MAX_VALUE) throw new IllegalArgumentException("Lookup table too large: " + size + " entries");
+        }
+
+        Map<Long, Integer> packIndex = new HashMap<>();
+        PackTable t = snapshot.packTable();
+        for (int pi = 0; pi < t.packId.length; pi++) packIndex.putIfAbsent(t.packId[pi], pi);
+
+        int[] ranked = new int[(int) size];
+        double[] cost = new double[(int) size];
+        Map<Integer, SimulationResponse.Option> combos = new HashMap<>();
+        BitSet comboTruncated = new BitSet();
+        for (int ci = 0; ci < countries.size(); ci++) {
+            for (int d = 1; d <= maxDays; d++) {
+                var leg = new SimulationRequest.Leg(countries.get(ci), REFERENCE, REFERENCE.plusDays(d - 1));
+                for (int b = 0; b < buckets; b++) {
+                    // Kırpılan hücrede combo bir yer kaplayabilir: bir fazla istenir, combo dışındakiler saklanır
+                    var req = new SimulationRequest(null, List.of(leg), profiles.get(b), full[ci] ? 0 : width[ci] + 1);
+                    SimulationResponse r = PricingEngine.simulate(req, snapshot, comboLimits);
+                    int cell = (ci * maxDays + d - 1) * buckets + b;
+                    int pos = offset[ci] + ((d - 1) * buckets + b) * width[ci];
+                    int i = 0;
+                    for (SimulationResponse.Option o : r.options()) {
+                        if ("combo".equals(o.kind())) {
+                            combos.put(cell, o);
+                            if (r.warnings().contains(PricingEngine.COMBO_TRUNCATED_WARNING)) comboTruncated.set(cell);
+                            continue;
+                        }
+                        if (i == width[ci]) break;
+                        ranked[pos + i] = "payg".equals(o.kind()) ? -1 : packIndex.get(o.packId());
+                        cost[pos + i] = o.totalCost();
+                        i++;
+                    }
+                }
+            }
+        }
+        return new SimulationLookupTable(snapshot.version(), maxDays, countryIndex, profileIndex,
+                width, full, offset, ranked, cost, combos, comboTruncated);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public int cells() {
+        return countryIndex.size() * maxDays * profileIndex.size();
+    }
+
+    // Tabloya uyan istekte PricingEngine.simulate ile aynı yanıt; uymuyorsa null
+    public SimulationResponse lookup(SimulationRequest req, PricingSnapshot snapshot) {
+        if (snapshot.version() != version) return null;
+        List<SimulationRequest.Leg> trips = req.trips();
+        if (trips == null || trips.size() != 1) return null;
+        var leg = trips.get(0);
+        if (leg.startDate() == null || leg.endDate() == null) return null;
+        long days = ChronoUnit.DAYS.between(leg.startDate(), leg.endDate()) + 1;
+        if (days < 1 || days > maxDays) return null;
+        Integer ci = countryIndex.get(leg.countryCode());
+        Integer b = req.profile() == null ? null : profileIndex.get(req.profile());
+        if (ci == null || b == null) return null;
+
+        int cell = (ci * maxDays + (int) days - 1) * profileIndex.size() + b;
+        SimulationResponse.Option combo = combos.get(cell);
+        int first = combo != null ? 1 : 0;
+        int limit = req.limitOrAll();
+        if (limit < 0) return null;
+        if (!full[ci] && (limit == 0 || limit - first > width[ci])) return null;
+        int count = limit > 0 ? Math.min(limit - first, width[ci]) : width[ci];
+
+        var p = req.profile();
+        Itinerary it = Itinerary.of(Map.of(leg.countryCode(), (int) days),
+                p.avgDailyMb(), p.avgDailyMin(), p.avgDailySms(), snapshot);
+        List<RoamingPack> packs = snapshot.packs();
+        PackTable t = snapshot.packTable();
+        int pos = offset[ci] + (((int) days - 1) * profileIndex.size() + b) * width[ci];
+
+        SimulationResponse.Option[] all = new SimulationResponse.Option[first + count];
+        List<String> warnings = new ArrayList<>();
+        if (combo != null) {
+            all[0] = ComboSolver.shift(combo, ChronoUnit.DAYS.between(REFERENCE, leg.startDate()));
+            if (comboTruncated.get(cell)) warnings.add(PricingEngine.COMBO_TRUNCATED_WARNING);
+        }
+        int[] returned = new int[count];
+        int nReturned = 0;
+        for (int i = 0; i < count; i++) {
+            int pi = ranked[pos + i];
+            all[first + i] = pi < 0
+                    ? PricingEngine.paygOption(it, cost[pos + i])
+                    : PricingEngine.packOption(packs, t, pi, it, cost[pos + i]);
+            if (pi >= 0) returned[nReturned++] = pi;
+        }
+
+        // Uyarılar motordaki gibi sadece döndürülen paketler için, snapshot sırasıyla
+        Arrays.sort(returned, 0, nReturned);
+        for (int i = 0; i < nReturned; i++) {
+            int pi = returned[i];
+            PricingEngine.addPackWarnings(warnings, packs.get(pi).getName(), it.totalDays <= t.validityDays[pi],
+                    it.coveredDays(snapshot.coverage(), pi) < it.totalDays);
+        }
+
+        var summary = new SimulationResponse.Summary(it.totalDays,
+                new SimulationResponse.Needs(it.needGb, it.needMin, it.needSms));
+        return new SimulationResponse(summary, Collections.unmodifiableList(Arrays.asList(all)), List.copyOf(warnings));
+    }
+}
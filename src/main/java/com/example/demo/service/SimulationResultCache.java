@@ -0,0 +1,92 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.SimulationResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// simulate() sonuçları için sınırlı LRU önbellek; anahtar normalize edilmiş istek + katalog versiyonu
+@Component
+@Slf4j
+public class SimulationResultCache {
+
+    // Fiyatlamanın bağlı olduğu her şey: ülke → gün dağılımı, (kombinasyon açıksa) göreli rota,
+    // profil üçlüsü ve seçenek limiti (0 = tümü)
+    public record Key(long catalogVersion, SortedMap<String, Integer> countryDays, List<ComboSolver.RouteLeg> route,
+                      int mb, int min, int sms, int limit) {
+    }
+
+    public record Stats(long hits, long misses, long evictions, int size, int maxEntries) {
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : hits / (double) total;
+        }
+    }
+
+    private final int maxEntries;
+    private final Map<Key, SimulationResponse> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public SimulationResultCache(@Value("${simulation.cache.max-entries:10000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, SimulationResponse> eldest) {
+                boolean evict = size() > SimulationResultCache.this.maxEntries;
+                if (evict) evictions.incrementAndGet();
+                return evict;
+            }
+        };
+    }
+
+    // Hesaplama kilit dışında yapılır; aynı anahtar için nadiren iki kez hesaplanabilir, sonuç aynıdır
+    public SimulationResponse get(Key key, Supplier<SimulationResponse> compute) {
+        if (maxEntries <= 0) return compute.get();
+        SimulationResponse cached;
+        synchronized (entries) {
+            cached = entries.get(key);
+        }
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        misses.incrementAndGet();
+        SimulationResponse value = compute.get();
+        synchronized (entries) {
+            entries.put(key, value);
+        }
+        return value;
+    }
+
+    // Eski versiyonlu anahtarlar zaten eşleşmez; yer açmak için hepsi bırakılır
+    @EventListener
+    public void onCatalogRefreshed(CatalogRefreshedEvent event) {
+        clear();
+        log.debug("Simulation result cache cleared for snapshot v{}", event.version());
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public Stats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new Stats(hits.get(), misses.get(), evictions.get(), size, maxEntries);
+    }
+}
@@ -0,0 +1,269 @@
+package com.example.demo.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Tarife ve kullanım CSV dosyaları için bellek-eşlemeli (mmap) okuyucu.
+ * Satırlar ara String üretilmeden byte'lar üzerinde ayrıştırılır; sayısal alanlar
+ * doğrudan byte'lardan okunur. Her satır için aynı {@link Row} nesnesi tekrar kullanılır,
+ * bu yüzden handler satırı saklamamalıdır.
+ * <p>
+ * Büyük dosyalar pencereler halinde eşlenir; pencereler her zaman satır başında başlar.
+ * Tırnaklı alanlar desteklenmez (mevcut data/*.csv formatı gibi).
+ */
+public final class TariffFileReader {
+
+    static final int DEFAULT_WINDOW = 64 << 20;      // 64 MB mmap penceresi
+    static final int DEFAULT_STREAM_BUFFER = 1 << 20;  // 1 MB akış tamponu
+
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9,
+            1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18};
+
+    @FunctionalInterface
+    public interface RowHandler {
+        void onRow(Row row);
+    }
+
+    private TariffFileReader() {
+    }
+
+    // Başlık satırı atlanır; dönen değer işlenen veri satırı sayısıdır
+    public static long read(Path file, RowHandler handler) throws IOException {
+        return read(file, DEFAULT_WINDOW, handler);
+    }
+
+    static long read(Path file, int window, RowHandler handler) throws IOException {
+        Parser parser = new Parser(handler);
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            long pos = 0;
+            while (pos < size) {
+                long len = Math.min(window, size - pos);
+                boolean last = pos + len == size;
+                MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, pos, len);
+                int consumed = parser.parse(buf, (int) len, last);
+                if (consumed == 0 && !last)
+                    throw new IOException("Row longer than mapping window at offset " + pos + " in " + file);
+                pos += consumed;
+            }
+        }
+        return parser.rows;
+    }
+
+    // Dosya olmayan kaynaklar (HTTP gövdesi, jar içi kaynak) için aynı ayrıştırıcı, yeniden kullanılan tampon ile
+    public static long read(InputStream in, RowHandler handler) throws IOException {
+        return read(in, DEFAULT_STREAM_BUFFER, handler);
+    }
+
+    static long read(InputStream in, int bufferSize, RowHandler handler) throws IOException {
+        Parser parser = new Parser(handler);
+        byte[] buf = new byte[bufferSize];
+        int filled = 0;
+        while (true) {
+            int n = in.read(buf, filled, buf.length - filled);
+            boolean eof = n < 0;
+            if (!eof) {
+                filled += n;
+                if (filled < buf.length) continue;
+            }
+            int consumed = parser.parse(ByteBuffer.wrap(buf, 0, filled), filled, eof);
+            if (eof) break;
+            if (consumed == 0) {
+                buf = Arrays.copyOf(buf, buf.length * 2); // tampondan uzun satır
+            } else {
+                System.arraycopy(buf, consumed, buf, 0, filled - consumed);
+                filled -= consumed;
+            }
+        }
+        return parser.rows;
+    }
+
+    // Sınıf yolundaki kaynak dosya sisteminde ise eşlenir, jar içindeyse akış olarak okunur
+    public static long readResource(String resource, RowHandler handler) throws IOException {
+        URL url = TariffFileReader.class.getResource(resource);
+        if (url == null)
+            throw new IOException("CSV resource not found: " + resource);
+        if ("file".equals(url.getProtocol())) {
+            try {
+                return read(Path.of(url.toURI()), handler);
+            } catch (URISyntaxException e) {
+                throw new IOException("Invalid resource URL: " + url, e);
+            }
+        }
+        try (InputStream in = url.openStream()) {
+            return read(in, handler);
+        }
+    }
+
+    private static final class Parser {
+        private final RowHandler handler;
+        private final Row row = new Row();
+        private boolean headerSkipped;
+        private boolean bomChecked;
+        long rows;
+
+        Parser(RowHandler handler) {
+            this.handler = handler;
+        }
+
+        // limit'e kadar olan tam satırları işler; tüketilen byte sayısını döner
+        int parse(ByteBuffer buf, int limit, boolean last) {
+            int rowStart = 0;
+            if (!bomChecked) {
+                bomChecked = true;
+                if (limit >= 3 && buf.get(0) == (byte) 0xEF && buf.get(1) == (byte) 0xBB && buf.get(2) == (byte) 0xBF)
+                    rowStart = 3;
+            }
+            for (int i = rowStart; i < limit; i++) {
+                if (buf.get(i) == '\n') {
+                    emit(buf, rowStart, i);
+                    rowStart = i + 1;
+                }
+            }
+            if (last && rowStart < limit) {
+                emit(buf, rowStart, limit);
+                rowStart = limit;
+            }
+            return rowStart;
+        }
+
+        private void emit(ByteBuffer buf, int start, int end) {
+            if (end > start && buf.get(end - 1) == '\r') end--;
+            if (!headerSkipped) {
+                headerSkipped = true;
+                return;
+            }
+            if (end == start) return; // boş satır
+            row.reset(buf);
+            int fieldStart = start;
+            for (int i = start; i < end; i++) {
+                if (buf.get(i) == ',') {
+                    row.addField(fieldStart, i);
+                    fieldStart = i + 1;
+                }
+            }
+            row.addField(fieldStart, end);
+            rows++;
+            handler.onRow(row);
+        }
+    }
+
+    /**
+     * Geçerli satırın alanlarına erişim. Alanlar baştaki/sondaki boşluklardan arındırılmıştır.
+     */
+    public static final class Row {
+        private ByteBuffer buf;
+        private int[] starts = new int[16];
+        private int[] ends = new int[16];
+        private int count;
+
+        void reset(ByteBuffer buf) {
+            this.buf = buf;
+            this.count = 0;
+        }
+
+        void addField(int start, int end) {
+            while (start < end && isSpace(buf.get(start))) start++;
+            while (end > start && isSpace(buf.get(end - 1))) end--;
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+                ends = Arrays.copyOf(ends, count * 2);
+            }
+            starts[count] = start;
+            ends[count] = end;
+            count++;
+        }
+
+        private static boolean isSpace(byte b) {
+            return b == ' ' || b == '\t';
+        }
+
+        public int fieldCount() {
+            return count;
+        }
+
+        public String getString(int field) {
+            check(field);
+            byte[] bytes = new byte[ends[field] - starts[field]];
+            buf.get(starts[field], bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        public long getLong(int field) {
+            check(field);
+            int i = starts[field], end = ends[field];
+            boolean negative = false;
+            if (i < end && (buf.get(i) == '-' || buf.get(i) == '+')) negative = buf.get(i++) == '-';
+            if (i == end) throw numberError(field);
+            long v = 0;
+            for (; i < end; i++) {
+                int d = buf.get(i) - '0';
+                if (d < 0 || d > 9) throw numberError(field);
+                v = Math.addExact(Math.multiplyExact(v, 10), d);
+            }
+            return negative ? -v : v;
+        }
+
+        public int getInt(int field) {
+            long v = getLong(field);
+            if (v < Integer.MIN_VALUE || v > Integer.MAX_VALUE) throw numberError(field);
+            return (int) v;
+        }
+
+        // Basit ondalık ("0.09", "19.9") doğrudan byte'lardan; üslü veya 15 basamaktan uzun değerlerde JDK ayrıştırıcısı
+        public double getDouble(int field) {
+            check(field);
+            int i = starts[field], end = ends[field];
+            boolean negative = false;
+            if (i < end && (buf.get(i) == '-' || buf.get(i) == '+')) negative = buf.get(i++) == '-';
+            long mantissa = 0;
+            int digits = 0, scale = 0;
+            boolean dot = false;
+            for (; i < end; i++) {
+                byte b = buf.get(i);
+                if (b == '.' && !dot) {
+                    dot = true;
+                    continue;
+                }
+                int d = b - '0';
+                if (d < 0 || d > 9 || digits == 15) return slowDouble(field);
+                mantissa = mantissa * 10 + d;
+                digits++;
+                if (dot) scale++;
+            }
+            if (digits == 0) throw numberError(field);
+            // En fazla 15 basamak: mantissa < 2^53 ve 10^scale (scale <= 15) double'da tam temsil edilir,
+            // tek bölme doğru yuvarlanır. Daha uzun değerler JDK ayrıştırıcısına gider
+            double v = mantissa / POW10[scale];
+            return negative ? -v : v;
+        }
+
+        private double slowDouble(int field) {
+            try {
+                return Double.parseDouble(getString(field));
+            } catch (NumberFormatException e) {
+                throw numberError(field);
+            }
+        }
+
+        private void check(int field) {
+            if (field < 0 || field >= count)
+                throw new IndexOutOfBoundsException("Field " + field + " of " + count);
+        }
+
+        private NumberFormatException numberError(int field) {
+            return new NumberFormatException("Invalid number in field " + field + ": '" + getString(field) + "'");
+        }
+    }
+}
@@ -0,0 +1,359 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.SimulationRequest;
+import com.example.demo.dto.SimulationResponse;
+import com.example.demo.entity.RoamingPack;
+import com.example.demo.entity.RoamingRate;
+import com.example.demo.entity.TripDay;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Günleri tarih sırasıyla yürüten fiyatlama. Her aday paket için "gerektiğinde al" stratejisi
+ * simüle edilir: kapsanan bir günde aktif alım yoksa (veya süresi dolduysa) paket alınır, kalan
+ * kota ve bitiş günü izlenir; kota bitince aşım o günün ülke oranıyla, kapsanmayan günler PAYG
+ * ile ödenir. Çok ülkeli günlerde kullanım iki ülkeye yarı yarıya bölünür ve her yarı kendi
+ * ülkesinin oranı/kapsamasıyla fiyatlanır.
+ * <p>
+ * Durum her CHECKPOINT_EVERY günde bir saklanır. replaceDays() ilk değişen günü bulur, ondan
+ * önceki en yakın checkpoint'e döner ve sadece geri kalan günleri yeniden yürütür; düzenleyicide
+ * son bacakta yapılan değişiklik tüm trip'i baştan hesaplamaz. Ülke kümesi değişirse aday paketler
+ * de değiştiği için baştan kurulur.
+ * <p>
+ * Örnekler değiştirilebilir durum taşır; metodlar senkronizedir.
+ */
+public final class TimelinePricer {
+
+    static final int CHECKPOINT_EVERY = 7;
+
+    public record Day(LocalDate date, String countryCode1, String countryCode2) {
+        public boolean multiCountry() {
+            return countryCode2 != null;
+        }
+    }
+
+    // Bacaklar → günler. Aynı tarihe düşen iki farklı ülke çok ülkeli gün olur (bacak başlangıç sırasıyla)
+    public static List<Day> days(List<SimulationRequest.Leg> legs) {
+        List<SimulationRequest.Leg> sorted = new ArrayList<>(legs);
+        sorted.sort(Comparator.comparing(SimulationRequest.Leg::startDate));
+        TreeMap<LocalDate, List<String>> byDate = new TreeMap<>();
+        for (SimulationRequest.Leg l : sorted) {
+            if (l.endDate().isBefore(l.startDate())) throw new IllegalArgumentException("endDate must be >= startDate");
+            for (LocalDate d = l.startDate(); !d.isAfter(l.endDate()); d = d.plusDays(1)) {
+                List<String> cs = byDate.computeIfAbsent(d, k -> new ArrayList<>(2));
+                if (!cs.contains(l.countryCode())) cs.add(l.countryCode());
+            }
+        }
+        List<Day> days = new ArrayList<>(byDate.size());
+        byDate.forEach((date, cs) -> {
+            if (cs.size() > 2) throw new IllegalArgumentException("At most two countries per day: " + date);
+            days.add(new Day(date, cs.get(0), cs.size() > 1 ? cs.get(1) : null));
+        });
+        return days;
+    }
+
+    public static List<Day> fromTripDays(List<TripDay> tripDays) {
+        return tripDays.stream()
+                .sorted(Comparator.comparing(TripDay::getDate))
+                .map(d -> new Day(d.getDate(), d.getCountryCode1(), d.isMultiCountry() ? d.getCountryCode2() : null))
+                .toList();
+    }
+
+    private final PricingSnapshot snapshot;
+    private final int mb;
+    private final int min;
+    private final int sms;
+
+    private List<Day> days = List.of();
+    private int[] cand = new int[0];               // aday paketlerin snapshot sıra numaraları
+    private Map<String, Integer> countryIndex = Map.of();
+    private boolean[] covers = new boolean[0];      // [aday * ülkeSayısı + ülke]
+
+    // Gün başına çözülmüş bölümler (tek ülkeli günde ikinci bölüm yok: country2 = -1)
+    private long[] epoch = new long[0];
+    private int[] country1 = new int[0], country2 = new int[0];
+    private double[] rd1 = new double[0], rv1 = new double[0], rs1 = new double[0];
+    private double[] rd2 = new double[0], rv2 = new double[0], rs2 = new double[0];
+
+    private State state;
+    private final List<State> checkpoints = new ArrayList<>(); // i. eleman: i * CHECKPOINT_EVERY. günden önceki durum
+    private int lastRecomputedDays;
+
+    public TimelinePricer(PricingSnapshot snapshot, List<Day> days, SimulationRequest.UsageProfileDto profile) {
+        this.snapshot = snapshot;
+        this.mb = profile.avgDailyMb();
+        this.min = profile.avgDailyMin();
+        this.sms = profile.avgDailySms();
+        rebuild(days);
+    }
+
+    // Yeni gün listesi; ilk farklı günden önceki checkpoint'ten devam edilir
+    public synchronized void replaceDays(List<Day> newDays) {
+        validate(newDays);
+        if (!countryIndex.keySet().equals(countriesOf(newDays))) {
+            rebuild(newDays);
+            return;
+        }
+        int first = 0;
+        int common = Math.min(days.size(), newDays.size());
+        while (first < common && days.get(first).equals(newDays.get(first))) first++;
+        if (first == common && days.size() == newDays.size()) {
+            lastRecomputedDays = 0;
+            return;
+        }
+        days = List.copyOf(newDays);
+        resolveDays();
+        int cp = Math.min(first / CHECKPOINT_EVERY, checkpoints.size() - 1);
+        checkpoints.subList(cp + 1, checkpoints.size()).clear();
+        state = checkpoints.get(cp).copy();
+        walk(cp * CHECKPOINT_EVERY);
+    }
+
+    public synchronized List<Day> days() {
+        return days;
+    }
+
+    // Son güncellemede yeniden yürütülen gün sayısı (tam hesapta days().size())
+    public synchronized int lastRecomputedDays() {
+        return lastRecomputedDays;
+    }
+
+    // limit > 0 ise en iyi N seçenek; sıra: maliyet, kapsama tam, tek alım yeterli, aday sırası (PAYG en sonda)
+    public synchronized SimulationResponse response(int limit) {
+        if (limit < 0) throw new IllegalArgumentException("limit must be >= 0");
+        List<RoamingPack> packs = snapshot.packs();
+        PackTable t = snapshot.packTable();
+        int n = cand.length;
+        double[] cost = new double[n + 1];
+        for (int k = 0; k < n; k++) cost[k] = round2(state.total(k));
+        cost[n] = round2(state.payg);
+
+        Integer[] order = new Integer[n + 1];
+        for (int i = 0; i <= n; i++) order[i] = i;
+        Arrays.sort(order, Comparator.<Integer>comparingDouble(i -> cost[i])
+                .thenComparing(i -> i < n && state.uncoveredDays[i] > 0)
+                .thenComparing(i -> i < n && state.purchases[i] > 1)
+                .thenComparingInt(i -> i));
+        int count = limit > 0 ? Math.min(limit, n + 1) : n + 1;
+
+        List<SimulationResponse.Option> options = new ArrayList<>(count);
+        List<String> warnings = new ArrayList<>();
+        String paygCurrency = paygCurrency();
+        for (int i = 0; i < count; i++) {
+            int k = order[i];
+            if (k == n) {
+                options.add(new SimulationResponse.Option("payg", null, 0, cost[n], paygCurrency, true, true, null));
+                continue;
+            }
+            int pi = cand[k];
+            RoamingPack p = packs.get(pi);
+            boolean fullCoverage = state.uncoveredDays[k] == 0;
+            boolean single = state.purchases[k] <= 1;
+            options.add(new SimulationResponse.Option("pack", t.packId[pi], p.getName(), state.purchases[k], cost[k],
+                    p.getCurrency(), fullCoverage, single,
+                    new SimulationResponse.Option.Overflow(round2(state.overMb[k]), round2(state.overMin[k]), round2(state.overSms[k]))));
+            if (!single) warnings.add("Paketin geçerliliği trip süresinden kısa: " + p.getName());
+            if (!fullCoverage) warnings.add("Kapsama dışında gün(ler) var: " + p.getName());
+        }
+
+        double needMb = (double) mb * days.size();
+        var summary = new SimulationResponse.Summary(days.size(),
+                new SimulationResponse.Needs(needMb / 1024.0, min * days.size(), sms * days.size()));
+        return new SimulationResponse(summary, List.copyOf(options), List.copyOf(warnings));
+    }
+
+    private void rebuild(List<Day> newDays) {
+        validate(newDays);
+        days = List.copyOf(newDays);
+        Map<String, Integer> idx = new LinkedHashMap<>();
+        for (Day d : days) {
+            idx.putIfAbsent(d.countryCode1(), idx.size());
+            if (d.countryCode2() != null) idx.putIfAbsent(d.countryCode2(), idx.size());
+        }
+        countryIndex = idx;
+
+        CoverageIndex coverage = snapshot.coverage();
+        int[] bits = new int[idx.size()];
+        idx.forEach((code, i) -> bits[i] = coverage.countryBit(code));
+        BitSet candidates = new BitSet();
+        for (int bit : bits) candidates.or(coverage.candidates(bit));
+        cand = candidates.stream().toArray();
+        covers = new boolean[cand.length * bits.length];
+        for (int k = 0; k < cand.length; k++) {
+            for (int c = 0; c < bits.length; c++) covers[k * bits.length + c] = coverage.covers(cand[k], bits[c]);
+        }
+
+        resolveDays();
+        state = new State(cand.length);
+        checkpoints.clear();
+        walk(0);
+    }
+
+    private void resolveDays() {
+        int n = days.size();
+        epoch = new long[n];
+        country1 = new int[n];
+        country2 = new int[n];
+        rd1 = new double[n]; rv1 = new double[n]; rs1 = new double[n];
+        rd2 = new double[n]; rv2 = new double[n]; rs2 = new double[n];
+        Map<String, RoamingRate> rates = snapshot.rates();
+        for (int t = 0; t < n; t++) {
+            Day d = days.get(t);
+            epoch[t] = d.date().toEpochDay();
+            country1[t] = countryIndex.get(d.countryCode1());
+            RoamingRate r1 = rates.get(d.countryCode1());
+            rd1[t] = r1 == null ? 0 : r1.getDataPerMb();
+            rv1[t] = r1 == null ? 0 : r1.getVoicePerMin();
+            rs1[t] = r1 == null ? 0 : r1.getSmsPerMsg();
+            if (d.countryCode2() == null) {
+                country2[t] = -1;
+                continue;
+            }
+            country2[t] = countryIndex.get(d.countryCode2());
+            RoamingRate r2 = rates.get(d.countryCode2());
+            rd2[t] = r2 == null ? 0 : r2.getDataPerMb();
+            rv2[t] = r2 == null ? 0 : r2.getVoicePerMin();
+            rs2[t] = r2 == null ? 0 : r2.getSmsPerMsg();
+        }
+    }
+
+    // from. günden sona kadar yürütür; yol üstündeki checkpoint'ler yeniden yazılır
+    private void walk(int from) {
+        PackTable t = snapshot.packTable();
+        int n = cand.length;
+        int countries = countryIndex.size();
+        State s = state;
+        for (int d = from; d < days.size(); d++) {
+            if (d % CHECKPOINT_EVERY == 0) {
+                int cp = d / CHECKPOINT_EVERY;
+                if (cp < checkpoints.size()) checkpoints.set(cp, s.copy());
+                else checkpoints.add(s.copy());
+            }
+            boolean split = country2[d] >= 0;
+            double share = split ? 0.5 : 1.0;
+            double useMb = mb * share, useMin = min * share, useSms = sms * share;
+            double payg1 = useMb * rd1[d] + useMin * rv1[d] + useSms * rs1[d];
+            double payg2 = split ? useMb * rd2[d] + useMin * rv2[d] + useSms * rs2[d] : 0;
+            s.payg += payg1 + payg2;
+
+            for (int k = 0; k < n; k++) {
+                int base = k * countries;
+                boolean uncovered = false;
+                if (covers[base + country1[d]]) consume(s, k, cand[k], t, d, useMb, useMin, useSms, rd1[d], rv1[d], rs1[d]);
+                else {
+                    s.uncovered[k] += payg1;
+                    uncovered = true;
+                }
+                if (split) {
+                    if (covers[base + country2[d]]) consume(s, k, cand[k], t, d, useMb, useMin, useSms, rd2[d], rv2[d], rs2[d]);
+                    else {
+                        s.uncovered[k] += payg2;
+                        uncovered = true;
+                    }
+                }
+                if (uncovered) s.uncoveredDays[k]++;
+            }
+        }
+        lastRecomputedDays = days.size() - from;
+    }
+
+    // Aktif alım yoksa/süresi dolduysa yeni alım; kota yetmezse aşım o ülkenin oranıyla
+    private void consume(State s, int k, int pi, PackTable t, int d,
+                         double useMb, double useMin, double useSms, double dataPerMb, double voicePerMin, double smsPerMsg) {
+        if (epoch[d] > s.expiry[k]) {
+            s.purchases[k]++;
+            s.base[k] += t.price[pi];
+            s.remMb[k] = t.dataGb[pi] * 1024.0;
+            s.remMin[k] = t.voiceMin[pi];
+            s.remSms[k] = t.sms[pi];
+            s.expiry[k] = epoch[d] + t.validityDays[pi] - 1;
+        }
+        double x = Math.min(s.remMb[k], useMb);
+        s.remMb[k] -= x;
+        s.overMb[k] += (useMb - x) * dataPerMb;
+        x = Math.min(s.remMin[k], useMin);
+        s.remMin[k] -= x;
+        s.overMin[k] += (useMin - x) * voicePerMin;
+        x = Math.min(s.remSms[k], useSms);
+        s.remSms[k] -= x;
+        s.overSms[k] += (useSms - x) * smsPerMsg;
+    }
+
+    private String paygCurrency() {
+        String currency = null;
+        for (String code : countryIndex.keySet()) {
+            RoamingRate r = snapshot.rates().get(code);
+            if (r != null) currency = r.getCurrency(); // basit varsayım: tek para birimi
+        }
+        return currency;
+    }
+
+    private static void validate(List<Day> days) {
+        for (int t = 1; t < days.size(); t++) {
+            if (!days.get(t).date().isAfter(days.get(t - 1).date())) {
+                throw new IllegalArgumentException("days must be in strictly increasing date order");
+            }
+        }
+    }
+
+    private static Set<String> countriesOf(List<Day> days) {
+        Set<String> set = new HashSet<>();
+        for (Day d : days) {
+            set.add(d.countryCode1());
+            if (d.countryCode2() != null) set.add(d.countryCode2());
+        }
+        return set;
+    }
+
+    private static double round2(double v) {
+        return Math.round(v * 100.0) / 100.0;
+    }
+
+    // Aday başına alım durumu ve biriken maliyet bileşenleri (struct of arrays)
+    private static final class State {
+        final long[] expiry;
+        final double[] remMb, remMin, remSms;
+        final int[] purchases, uncoveredDays;
+        final double[] base, overMb, overMin, overSms, uncovered;
+        double payg;
+
+        State(int n) {
+            expiry = new long[n];
+            Arrays.fill(expiry, Long.MIN_VALUE);
+            remMb = new double[n];
+            remMin = new double[n];
+            remSms = new double[n];
+            purchases = new int[n];
+            uncoveredDays = new int[n];
+            base = new double[n];
+            overMb = new double[n];
+            overMin = new double[n];
+            overSms = new double[n];
+            uncovered = new double[n];
+        }
+
+        private State(State o) {
+            expiry = o.expiry.clone();
+            remMb = o.remMb.clone();
+            remMin = o.remMin.clone();
+            remSms = o.remSms.clone();
+            purchases = o.purchases.clone();
+            uncoveredDays = o.uncoveredDays.clone();
+            base = o.base.clone();
+            overMb = o.overMb.clone();
+            overMin = o.overMin.clone();
+            overSms = o.overSms.clone();
+            uncovered = o.uncovered.clone();
+            payg = o.payg;
+        }
+
+        State copy() {
+            return new State(this);
+        }
+
+        double total(int k) {
+            return base[k] + overMb[k] + overMin[k] + overSms[k] + uncovered[k];
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package com.example.demo.service;
+
+// Trip eklendiğinde/değiştiğinde gönderilir; aktif trip indeksi yeniden kurulur
+public record TripsChangedEvent(Long tripId) {
+}
@@ -0,0 +1,34 @@
+package com.example.demo.service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.function.Supplier;
+
+/**
+ * Fiyatlama çalışma alanları için sınırlı havuz. ThreadLocal virtual thread'lerde işe yaramaz (her thread
+ * yeni alan ayırır ve thread bitince atılır); havuz ise thread türünden bağımsız olarak en fazla
+ * capacity alanı saklar. Boşsa yeni alan üretilir, doluysa geri verilen alan çöpe gider; çağıran asla beklemez.
+ */
+final class WorkspacePool<T> {
+
+    private final ArrayBlockingQueue<T> idle;
+    private final Supplier<T> factory;
+
+    WorkspacePool(int capacity, Supplier<T> factory) {
+        this.idle = new ArrayBlockingQueue<>(capacity);
+        this.factory = factory;
+    }
+
+    // Aynı anda çalışan fiyatlama sayısı pratikte çekirdek sayısıyla sınırlı
+    static int defaultCapacity() {
+        return Runtime.getRuntime().availableProcessors() * 2;
+    }
+
+    T acquire() {
+        T w = idle.poll();
+        return w != null ? w : factory.get();
+    }
+
+    void release(T w) {
+        idle.offer(w);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.demo.config;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConcurrencyLimitedDataSourceTest {
+
+    @Test
+    void testPermitsAreHeldUntilConnectionIsClosed() throws Exception {
+        DataSource target = mock(DataSource.class);
+        Connection physical = mock(Connection.class);
+        when(target.getConnection()).thenReturn(physical);
+        when(physical.getAutoCommit()).thenReturn(true);
+        var limited = new ConcurrencyLimitedDataSource(target, 2, Duration.ofMillis(50));
+
+        Connection first = limited.getConnection();
+        Connection second = limited.getConnection();
+        assertEquals(0, limited.availablePermits());
+        assertThrows(SQLTransientConnectionException.class, limited::getConnection);
+
+        // Diğer çağrılar hedef bağlantıya gider; kapatma izni bir kez bırakır
+        assertTrue(first.getAutoCommit());
+        first.close();
+        first.close();
+        assertEquals(1, limited.availablePermits());
+        verify(physical, times(2)).close();
+
+        try (Connection third = limited.getConnection()) {
+            assertNotNull(third);
+            assertEquals(0, limited.availablePermits());
+        }
+        second.close();
+        assertEquals(2, limited.availablePermits());
+    }
+
+    @Test
+    void testFailedConnectReleasesPermit() throws Exception {
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenThrow(new SQLTransientConnectionException("pool exhausted"));
+        var limited = new ConcurrencyLimitedDataSource(target, 1, Duration.ofMillis(50));
+
+        assertThrows(SQLTransientConnectionException.class, limited::getConnection);
+        assertEquals(1, limited.availablePermits());
+    }
+}
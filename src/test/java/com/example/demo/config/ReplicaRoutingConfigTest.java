@@ -0,0 +1,68 @@
+package com.example.demo.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+
+import static org.mockito.Mockito.*;
+
+class ReplicaRoutingConfigTest {
+
+    private DataSource primary;
+    private DataSource replica;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        primary = stub();
+        replica = stub();
+        DataSource routing = ReplicaRoutingConfig.routingDataSource(primary, replica);
+        jdbc = new JdbcTemplate(routing);
+        var txManager = new DataSourceTransactionManager(routing);
+        readWrite = new TransactionTemplate(txManager);
+        readOnly = new TransactionTemplate(txManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @Test
+    void testReadOnlyTransactionUsesReplica() throws Exception {
+        readOnly.executeWithoutResult(s -> jdbc.execute("SELECT 1"));
+
+        verify(replica).getConnection();
+        verify(primary, never()).getConnection();
+    }
+
+    @Test
+    void testWriteTransactionAndNonTransactionalWorkUsePrimary() throws Exception {
+        readWrite.executeWithoutResult(s -> jdbc.execute("UPDATE trips SET user_id = user_id"));
+        jdbc.execute("SELECT 1");
+
+        verify(primary, times(2)).getConnection();
+        verify(replica, never()).getConnection();
+    }
+
+    @Test
+    void testTransactionWithoutStatementsTouchesNoPool() throws Exception {
+        readOnly.executeWithoutResult(s -> { });
+
+        verify(primary, never()).getConnection();
+        verify(replica, never()).getConnection();
+    }
+
+    private static DataSource stub() throws Exception {
+        DataSource ds = mock(DataSource.class);
+        Connection con = mock(Connection.class);
+        when(con.getAutoCommit()).thenReturn(true);
+        when(con.createStatement()).thenReturn(mock(Statement.class));
+        when(ds.getConnection()).thenReturn(con);
+        return ds;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ActiveTrip;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActiveTripIndexTest {
+
+    private static final LocalDate BASE = LocalDate.of(2025, 8, 1);
+
+    @Test
+    void testOverlappingMatchesLinearScan() {
+        Random rnd = new Random(42);
+        List<ActiveTrip> trips = new ArrayList<>();
+        for (long i = 0; i < 2000; i++) {
+            LocalDate s = BASE.plusDays(rnd.nextInt(120));
+            trips.add(new ActiveTrip(i, i % 300, "C" + rnd.nextInt(10), null, s, s.plusDays(rnd.nextInt(30))));
+        }
+        ActiveTripIndex index = ActiveTripIndex.build(BASE, BASE.plusDays(150), trips);
+
+        for (int q = 0; q < 200; q++) {
+            LocalDate from = BASE.plusDays(rnd.nextInt(150));
+            LocalDate to = from.plusDays(rnd.nextInt(10));
+            Set<Long> expected = new HashSet<>();
+            for (ActiveTrip t : trips) {
+                if (!t.startDate().isAfter(to) && !t.endDate().isBefore(from)) expected.add(t.tripId());
+            }
+            Set<Long> actual = new HashSet<>();
+            index.overlapping(from, to).forEach(t -> actual.add(t.tripId()));
+            assertEquals(expected, actual, "overlap " + from + ".." + to);
+        }
+    }
+
+    @Test
+    void testOccupancyCountsDistinctUsersPerCountry() {
+        ActiveTripIndex index = ActiveTripIndex.build(BASE, BASE.plusDays(30), List.of(
+                new ActiveTrip(1L, 10L, "DE", null, BASE, BASE.plusDays(5)),
+                new ActiveTrip(2L, 10L, "DE", null, BASE.plusDays(6), BASE.plusDays(8)), // aynı kullanıcı
+                new ActiveTrip(3L, 11L, "FR", "DE", BASE.plusDays(2), BASE.plusDays(3)),
+                new ActiveTrip(4L, 12L, "IT", null, BASE.plusDays(20), BASE.plusDays(25))));
+
+        assertEquals(Map.of("DE", 2, "FR", 1), index.occupancy(BASE, BASE.plusDays(7)));
+        assertTrue(index.covers(BASE.plusDays(1), BASE.plusDays(2)));
+        assertFalse(index.covers(BASE.minusDays(1), BASE));
+    }
+}
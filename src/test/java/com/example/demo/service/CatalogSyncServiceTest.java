@@ -0,0 +1,90 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Country;
+import com.example.demo.entity.RoamingPack;
+import com.example.demo.entity.RoamingRate;
+import com.example.demo.entity.UsageProfile;
+import com.example.demo.entity.User;
+import com.example.demo.repository.CountryRepository;
+import com.example.demo.repository.RoamingPackRepository;
+import com.example.demo.repository.RoamingRateRepository;
+import com.example.demo.repository.UsageProfileRepository;
+import com.example.demo.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogSyncServiceTest {
+
+    @Mock
+    private CountryRepository countryRepository;
+    @Mock
+    private RoamingRateRepository roamingRateRepository;
+    @Mock
+    private RoamingPackRepository roamingPackRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private UsageProfileRepository usageProfileRepository;
+    @Mock
+    private EntityManager entityManager;
+
+    private CatalogSyncService service(String source) {
+        return new CatalogSyncService(countryRepository, roamingRateRepository, roamingPackRepository,
+                userRepository, usageProfileRepository, entityManager, source);
+    }
+
+    @Test
+    void testCsvOwnsCatalogButOnlySeedsUsers() {
+        // Veritabanında CSV'de olmayan 2500 paket: anahtarla, 1000'lik parçalarla silinir
+        List<RoamingPack> stored = new ArrayList<>();
+        LongStream.range(1, 2501).forEach(id -> stored.add(new RoamingPack(10_000 + id)));
+        when(countryRepository.findAll()).thenReturn(List.of());
+        when(roamingRateRepository.findAll()).thenReturn(List.of());
+        when(roamingPackRepository.findAll()).thenReturn(stored);
+        // 2001 zaten var (toplu yüklenmiş olabilir), 2002 eksik
+        User existing = new User(2001L);
+        existing.setName("Bulk loaded");
+        when(userRepository.findAllById(any())).thenReturn(List.of(existing));
+        when(usageProfileRepository.findAllById(any())).thenReturn(List.of());
+
+        var report = service("csv").syncAll(
+                List.of(new Country("DE", "Germany", "Europe")), List.of(), List.of(),
+                List.of(new User(2001L), new User(2002L)), List.of());
+
+        verify(roamingPackRepository, times(3)).deleteAllByIdInBatch(argThat(ids -> ((List<?>) ids).size() <= 1000));
+        var users = report.results().stream().filter(r -> r.table().equals("users")).findFirst().orElseThrow();
+        assertEquals(new CatalogSyncService.SyncResult("users", 1, 0, 0, 1), users);
+        assertTrue(report.catalogChanged());
+        // Kullanıcı tabloları ne tamamen okunur ne de güncellenir/silinir
+        verify(userRepository, never()).findAll();
+        verify(userRepository, never()).deleteAllByIdInBatch(any());
+        verify(entityManager, never()).merge(any());
+        verify(entityManager, times(1)).persist(argThat(u -> u instanceof User user && user.getUserId() == 2002L));
+    }
+
+    @Test
+    void testBulkLoadOwnedCatalogIsLeftAlone() {
+        when(userRepository.findAllById(any())).thenReturn(List.of());
+        when(usageProfileRepository.findAllById(any())).thenReturn(List.of());
+
+        var report = service("bulk-load").syncAll(
+                List.of(new Country("DE", "Germany", "Europe")),
+                List.of(new RoamingRate("DE", 0.09, 0.4, 0.18, "EUR")), List.of(), List.of(), List.of(new UsageProfile()));
+
+        assertFalse(report.catalogChanged());
+        verifyNoInteractions(countryRepository, roamingRateRepository, roamingPackRepository);
+        assertThrows(IllegalArgumentException.class, () -> service("s3"));
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.QuoteDelta;
+import com.example.demo.dto.QuoteResponse;
+import com.example.demo.dto.SimulationRequest;
+import com.example.demo.dto.SimulationResponse;
+import com.example.demo.entity.Country;
+import com.example.demo.entity.RoamingPack;
+import com.example.demo.entity.RoamingRate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class QuoteSessionServiceTest {
+
+    private static final SimulationRequest.UsageProfileDto PROFILE = new SimulationRequest.UsageProfileDto(600, 10, 2);
+
+    @Mock
+    private PricingSnapshotService snapshotService;
+
+    private QuoteSessionService quotes;
+    private PricingSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        quotes = new QuoteSessionService(snapshotService, ComboSolver.Limits.DEFAULT, 100, DataSize.ofMegabytes(1),
+                Duration.ofMinutes(30));
+        snapshot = PricingSnapshot.of(1L,
+                List.of(new Country("DE", "Germany", "Europe"), new Country("FR", "France", "Europe")),
+                List.of(new RoamingRate("DE", 0.09, 0.4, 0.18, "EUR"), new RoamingRate("FR", 0.1, 0.42, 0.18, "EUR")),
+                List.of(
+                        new RoamingPack(301L, "Avrupa 5GB", "Europe", "region", 5, 50, 50, 19.9, 7, "EUR"),
+                        new RoamingPack(302L, "Avrupa 10GB", "Europe", "region", 10, 100, 100, 29.9, 14, "EUR"),
+                        new RoamingPack(303L, "Fransa 3GB", "FR", "country", 3, 30, 30, 12.9, 7, "EUR")));
+        when(snapshotService.current()).thenReturn(snapshot);
+    }
+
+    @Test
+    void testDeltasUpdateOnlyAffectedPacks() {
+        QuoteResponse created = quotes.create(new SimulationRequest(1001L, List.of(
+                new SimulationRequest.Leg("DE", LocalDate.of(2025, 9, 1), LocalDate.of(2025, 9, 14)),
+                new SimulationRequest.Leg("FR", LocalDate.of(2025, 9, 15), LocalDate.of(2025, 9, 20))), PROFILE));
+        assertEquals(3, created.recomputedPacks());
+        assertEquals(engine(created.trips(), PROFILE), created.result());
+
+        // DE bacağı bir gün kısalır: sadece DE'yi kapsayan iki Avrupa paketi güncellenir, Fransa paketi değil
+        var leg = new SimulationRequest.Leg("DE", LocalDate.of(2025, 9, 1), LocalDate.of(2025, 9, 13));
+        QuoteResponse moved = quotes.apply(created.quoteId(), List.of(new QuoteDelta("updateLeg", 0, leg, null)));
+        assertEquals(1, moved.revision());
+        assertEquals(2, moved.recomputedPacks());
+        assertEquals(engine(moved.trips(), PROFILE), moved.result());
+
+        // Profil kapsanan günleri değiştirmez; fiyatlar yine /api/simulate ile aynı
+        var heavy = new SimulationRequest.UsageProfileDto(2000, 30, 5);
+        QuoteResponse reprofiled = quotes.apply(created.quoteId(), List.of(new QuoteDelta("setProfile", null, null, heavy)));
+        assertEquals(0, reprofiled.recomputedPacks());
+        assertEquals(engine(moved.trips(), heavy), reprofiled.result());
+
+        // Yeni ülke aday kümesini değiştirir: baştan kurulur
+        QuoteResponse added = quotes.apply(created.quoteId(), List.of(new QuoteDelta("addLeg", null,
+                new SimulationRequest.Leg("US", LocalDate.of(2025, 9, 21), LocalDate.of(2025, 9, 23)), null)));
+        assertEquals(3, added.recomputedPacks());
+        assertEquals(engine(added.trips(), heavy), added.result());
+    }
+
+    @Test
+    void testMemoryBudgetEvictsLeastRecentlyUsed() {
+        // Tek bacak DE: iki Avrupa paketi aday; bütçe iki buçuk oturumluk
+        long one = QuoteSessionService.estimateBytes(1, 2);
+        QuoteSessionService bounded = new QuoteSessionService(snapshotService, ComboSolver.Limits.DEFAULT, 100,
+                DataSize.ofBytes(2 * one + one / 2), Duration.ofMinutes(30));
+        var de = new SimulationRequest(1001L, List.of(
+                new SimulationRequest.Leg("DE", LocalDate.of(2025, 9, 1), LocalDate.of(2025, 9, 5))), PROFILE);
+
+        String first = bounded.create(de).quoteId();
+        String second = bounded.create(de).quoteId();
+        bounded.get(first); // first en son kullanılan olur
+        bounded.create(de);
+
+        assertEquals(2, bounded.size());
+        assertEquals(2 * one, bounded.estimatedBytes());
+        assertNotNull(bounded.get(first));
+        assertThrows(IllegalArgumentException.class, () -> bounded.get(second));
+
+        // Tek başına bütçeyi aşan teklif kabul edilmez
+        var tiny = new QuoteSessionService(snapshotService, ComboSolver.Limits.DEFAULT, 100,
+                DataSize.ofBytes(one - 1), Duration.ofMinutes(30));
+        assertThrows(IllegalArgumentException.class, () -> tiny.create(de));
+        assertEquals(0, tiny.size());
+    }
+
+    private SimulationResponse engine(List<SimulationRequest.Leg> trips, SimulationRequest.UsageProfileDto profile) {
+        return PricingEngine.simulate(new SimulationRequest(1001L, trips, profile), snapshot, ComboSolver.Limits.DEFAULT);
+    }
+
+    @Test
+    void testInvalidDeltaLeavesQuoteUnchanged() {
+        QuoteResponse created = quotes.create(new SimulationRequest(1001L, List.of(
+                new SimulationRequest.Leg("DE", LocalDate.of(2025, 9, 1), LocalDate.of(2025, 9, 5))), PROFILE));
+
+        assertThrows(IllegalArgumentException.class, () -> quotes.apply(created.quoteId(), List.of(
+                new QuoteDelta("addLeg", null, new SimulationRequest.Leg("FR", LocalDate.of(2025, 9, 6), LocalDate.of(2025, 9, 8)), null),
+                new QuoteDelta("removeLeg", 5, null, null))));
+        assertEquals(created, quotes.get(created.quoteId()));
+
+        quotes.close(created.quoteId());
+        assertThrows(IllegalArgumentException.class, () -> quotes.get(created.quoteId()));
+    }
+}
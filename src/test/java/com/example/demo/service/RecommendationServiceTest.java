@@ -3,8 +3,6 @@ package com.example.demo.service;
 import com.example.demo.dto.RecommendationResponse;
 import com.example.demo.dto.SimulationRequest;
 import com.example.demo.dto.SimulationResponse;
-import com.example.demo.entity.RoamingPack;
-import com.example.demo.repository.RoamingPackRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,10 +12,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Arrays;
 import java.util.List;
-import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,15 +22,11 @@ class RecommendationServiceTest {
     @Mock
     private SimulationService simulationService;
 
-    @Mock
-    private RoamingPackRepository roamingPackRepository;
-
     @InjectMocks
     private RecommendationService recommendationService;
 
     private SimulationRequest testRequest;
     private SimulationResponse testSimulationResponse;
-    private RoamingPack testPack;
 
     @BeforeEach
     void setUp() {
@@ -46,8 +38,6 @@ class RecommendationServiceTest {
             new SimulationRequest.UsageProfileDto(600, 10, 2)
         );
 
-        testPack = new RoamingPack(201L, "Avrupa 5GB", "Europe", "region", 5, 50, 50, 19.9, 7, "EUR");
-
         // Mock simulation response with different cost options
         var paygOption = new SimulationResponse.Option("payg", null, 0, 45.50, "EUR", true, true, null);
         var packOption1 = new SimulationResponse.Option("pack", 201L, 2, 39.80, "EUR", true, false, null);
@@ -55,7 +45,7 @@ class RecommendationServiceTest {
 
         testSimulationResponse = new SimulationResponse(
             new SimulationResponse.Summary(6, new SimulationResponse.Needs(3.5, 60, 12)),
-            Arrays.asList(paygOption, packOption1, packOption2), // Sıralama: en ucuzdan en pahalıya
+            Arrays.asList(packOption2, packOption1, paygOption), // Motor sırası: en ucuzdan en pahalıya
             Arrays.asList("Paket geçerliliği kısa")
         );
     }
@@ -64,8 +54,6 @@ class RecommendationServiceTest {
     void testRecommendTop3CostRanking() {
         // Given
         when(simulationService.simulate(any(SimulationRequest.class))).thenReturn(testSimulationResponse);
-        when(roamingPackRepository.findById(201L)).thenReturn(Optional.of(testPack));
-        when(roamingPackRepository.findById(202L)).thenReturn(Optional.of(testPack));
 
         // When
         RecommendationResponse response = recommendationService.recommendTop3(testRequest);
@@ -95,7 +83,6 @@ class RecommendationServiceTest {
     void testRecommendationExplanations() {
         // Given
         when(simulationService.simulate(any(SimulationRequest.class))).thenReturn(testSimulationResponse);
-        when(roamingPackRepository.findById(anyLong())).thenReturn(Optional.of(testPack));
 
         // When
         RecommendationResponse response = recommendationService.recommendTop3(testRequest);
@@ -132,8 +119,6 @@ class RecommendationServiceTest {
     void testRecommendationWithMissingPack() {
         // Given - Eksik paket senaryosu
         when(simulationService.simulate(any(SimulationRequest.class))).thenReturn(testSimulationResponse);
-        when(roamingPackRepository.findById(201L)).thenReturn(Optional.empty()); // Paket bulunamadı
-        when(roamingPackRepository.findById(202L)).thenReturn(Optional.of(testPack));
 
         // When
         RecommendationResponse response = recommendationService.recommendTop3(testRequest);
@@ -153,11 +138,23 @@ class RecommendationServiceTest {
             "Paket bulunamadığında fallback label kullanılmalı");
     }
 
+    @Test
+    void testComboExplanationFollowsCoverage() {
+        var fullCombo = new SimulationResponse.Option("combo", null, "Avrupa 10GB + ABD 5GB", 2, 69.20, "EUR", true, true, null);
+        var partialCombo = new SimulationResponse.Option("combo", null, "Avrupa 5GB + Avrupa 5GB", 2, 70.10, "EUR", false, true, null);
+        when(simulationService.simulate(any(SimulationRequest.class))).thenReturn(new SimulationResponse(
+            testSimulationResponse.summary(), Arrays.asList(fullCombo, partialCombo), List.of()));
+
+        var recommendations = recommendationService.recommendTop3(testRequest).top3();
+
+        assertEquals("Gün bazında 2 paket alımı; tüm günler paketle kapsanıyor.", recommendations.get(0).explanation());
+        assertEquals("Gün bazında 2 paket alımı; kapsanmayan günler PAYG.", recommendations.get(1).explanation());
+    }
+
     @Test
     void testRecommendationRationale() {
         // Given
         when(simulationService.simulate(any(SimulationRequest.class))).thenReturn(testSimulationResponse);
-        when(roamingPackRepository.findById(anyLong())).thenReturn(Optional.of(testPack));
 
         // When
         RecommendationResponse response = recommendationService.recommendTop3(testRequest);
@@ -191,8 +188,7 @@ class RecommendationServiceTest {
             Arrays.asList("Yüksek kullanım için paket önerilir")
         );
 
-        when(simulationService.simulate(highUsageRequest)).thenReturn(highUsageResponse);
-        when(roamingPackRepository.findById(201L)).thenReturn(Optional.of(testPack));
+        when(simulationService.simulate(highUsageRequest.withLimit(3))).thenReturn(highUsageResponse);
 
         // When
         RecommendationResponse response = recommendationService.recommendTop3(highUsageRequest);
@@ -0,0 +1,81 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RefreshableCacheTest {
+
+    @Test
+    void testColdCacheLoadsOnceUnderConcurrency() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        RefreshableCache<Integer> cache = new RefreshableCache<>(() -> {
+            await(release);
+            return loads.incrementAndGet();
+        }, Duration.ofMinutes(5));
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            var futures = new java.util.ArrayList<Future<Integer>>();
+            for (int i = 0; i < 8; i++) futures.add(pool.submit(cache::get));
+            Thread.sleep(50);
+            release.countDown();
+            for (Future<Integer> f : futures) assertEquals(1, f.get(5, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, loads.get(), "Soğuk önbellek tek bir yükleme yapmalı");
+        assertEquals(1, cache.stats().loads());
+    }
+
+    @Test
+    void testInvalidateAndTtl() throws InterruptedException {
+        AtomicInteger loads = new AtomicInteger();
+        RefreshableCache<Integer> cache = new RefreshableCache<>(loads::incrementAndGet, Duration.ofMillis(30));
+
+        assertEquals(1, cache.get());
+        assertEquals(1, cache.get());
+        cache.invalidate();
+        assertEquals(2, cache.get());
+        Thread.sleep(40);
+        assertEquals(3, cache.get(), "TTL dolunca yeniden yüklenmeli");
+
+        var stats = cache.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(3, stats.misses());
+        assertEquals(1, stats.invalidations());
+    }
+
+    @Test
+    void testInvalidateDuringLoadDoesNotCacheStaleValue() {
+        AtomicInteger loads = new AtomicInteger();
+        RefreshableCache<Integer>[] holder = new RefreshableCache[1];
+        holder[0] = new RefreshableCache<>(() -> {
+            int n = loads.incrementAndGet();
+            if (n == 1) holder[0].invalidate(); // yükleme sürerken veri yenilendi
+            return n;
+        }, Duration.ZERO);
+
+        assertEquals(1, holder[0].get());
+        assertEquals(2, holder[0].get(), "Eski yükleme önbelleğe yazılmamalı");
+        assertEquals(2, holder[0].get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.SimulationRequest;
+import com.example.demo.dto.SimulationResponse;
+import com.example.demo.dto.SweepRequest;
+import com.example.demo.dto.SweepResponse;
+import com.example.demo.entity.Country;
+import com.example.demo.entity.RoamingPack;
+import com.example.demo.entity.RoamingRate;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SensitivitySweepTest {
+
+    private static final List<SimulationRequest.Leg> TRIP = List.of(
+            new SimulationRequest.Leg("DE", LocalDate.of(2025, 9, 1), LocalDate.of(2025, 9, 10)));
+
+    private final PricingSnapshot snapshot = PricingSnapshot.of(1L,
+            List.of(
+                    new Country("DE", "Germany", "Europe"),
+                    new Country("US", "United States", "North America")),
+            List.of(
+                    new RoamingRate("DE", 0.09, 0.4, 0.18, "EUR"),
+                    new RoamingRate("US", 0.15, 0.6, 0.25, "USD")),
+            List.of(
+                    new RoamingPack(301L, "Avrupa 5GB", "Europe", "region", 5, 50, 50, 19.9, 7, "EUR"),
+                    new RoamingPack(302L, "Avrupa 20GB", "Europe", "region", 20, 200, 100, 49.9, 30, "EUR"),
+                    new RoamingPack(305L, "ABD 5GB", "US", "country", 5, 50, 50, 24.9, 10, "USD")));
+
+    @Test
+    void testBreakpointsAreExactEnvelopeCrossings() {
+        var req = new SweepRequest(TRIP, new SweepRequest.Range(0, 2000, 100),
+                new SweepRequest.Range(0, null, null), new SweepRequest.Range(0, null, null), null);
+        SweepResponse r = SensitivitySweep.sweep(req, snapshot, 10_000);
+
+        // PAYG 0.9*mb; 301: 2 paket 39.8, 1024 MB/gün sonrası aşım; 302: 49.9
+        assertEquals(10, r.days());
+        assertEquals(2, r.breakpoints().size());
+        var first = r.breakpoints().get(0);
+        assertEquals("avgDailyMb", first.axis());
+        assertEquals(Math.round(39.8 / 0.9 * 100) / 100.0, first.at(), 0.001);
+        assertEquals("payg", first.before().kind());
+        assertEquals(301L, first.after().packId());
+        var second = r.breakpoints().get(1);
+        assertEquals(Math.round((1024 + 10.1 / 0.9) * 100) / 100.0, second.at(), 0.001);
+        assertEquals(301L, second.before().packId());
+        assertEquals(302L, second.after().packId());
+    }
+
+    @Test
+    void testSurfaceMatchesIndependentSimulations() {
+        List<SimulationRequest.Leg> trip = List.of(
+                new SimulationRequest.Leg("DE", LocalDate.of(2025, 9, 1), LocalDate.of(2025, 9, 6)),
+                new SimulationRequest.Leg("US", LocalDate.of(2025, 9, 7), LocalDate.of(2025, 9, 9)));
+        var req = new SweepRequest(trip, new SweepRequest.Range(0, 3000, 250),
+                new SweepRequest.Range(0, 60, 15), new SweepRequest.Range(0, 20, 10), null);
+        SweepResponse r = SensitivitySweep.sweep(req, snapshot, 10_000);
+        assertEquals(13 * 5 * 3, r.surface().size());
+
+        for (SweepResponse.Point p : r.surface()) {
+            var profile = new SimulationRequest.UsageProfileDto(p.avgDailyMb(), p.avgDailyMin(), p.avgDailySms());
+            SimulationResponse sim = PricingEngine.simulate(new SimulationRequest(null, trip, profile, 1),
+                    snapshot, ComboSolver.Limits.DISABLED);
+            var best = sim.options().get(0);
+            assertEquals(best.kind(), p.best().kind(), p.toString());
+            assertEquals(best.packId(), p.best().packId(), p.toString());
+            assertEquals(best.totalCost(), p.totalCost(), 0.001, p.toString());
+        }
+
+        // Tarama sınırı
+        assertThrows(IllegalArgumentException.class, () -> SensitivitySweep.sweep(req, snapshot, 100));
+    }
+
+    @Test
+    void testHugeRangesRejectedBeforeAllocation() {
+        var single = new SweepRequest.Range(0, null, null);
+        for (var huge : List.of(
+                new SweepRequest.Range(0, 2_000_000_000, 1),
+                new SweepRequest.Range(0, Integer.MAX_VALUE, 1),
+                new SweepRequest.Range(0, Integer.MAX_VALUE, 2))) {
+            var ex = assertThrows(IllegalArgumentException.class, () -> SensitivitySweep.sweep(
+                    new SweepRequest(TRIP, huge, single, single, null), snapshot, 10_000), huge.toString());
+            assertTrue(ex.getMessage().startsWith("Sweep too large"), ex.getMessage());
+        }
+        // Eksenler tek tek sınırın altında, çarpım üstünde
+        var mid = new SweepRequest.Range(0, 99_999, 1);
+        assertThrows(IllegalArgumentException.class, () -> SensitivitySweep.sweep(
+                new SweepRequest(TRIP, mid, mid, mid, null), snapshot, 100_000));
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.SimulationRequest;
+import com.example.demo.dto.SimulationResponse;
+import com.example.demo.entity.Country;
+import com.example.demo.entity.RoamingPack;
+import com.example.demo.entity.RoamingRate;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SimulationLookupTableTest {
+
+    // Süre sınırı sonuçları belirsizleştirmesin
+    private static final ComboSolver.Limits COMBO = new ComboSolver.Limits(true, 120, 2_000_000L, Duration.ofSeconds(10));
+
+    private static final List<SimulationRequest.UsageProfileDto> PROFILES = List.of(
+            new SimulationRequest.UsageProfileDto(600, 10, 2),
+            new SimulationRequest.UsageProfileDto(2500, 40, 5));
+
+    private final PricingSnapshot snapshot = PricingSnapshot.of(1L,
+            List.of(
+                    new Country("DE", "Germany", "Europe"),
+                    new Country("US", "United States", "North America"),
+                    new Country("JP", "Japan", "Asia")),
+            List.of(
+                    new RoamingRate("DE", 0.09, 0.4, 0.18, "EUR"),
+                    new RoamingRate("US", 0.15, 0.6, 0.25, "USD")),
+            List.of(
+                    new RoamingPack(301L, "Avrupa 5GB", "Europe", "region", 5, 50, 50, 19.9, 7, "EUR"),
+                    new RoamingPack(302L, "Avrupa 10GB", "Europe", "region", 10, 100, 100, 29.9, 14, "EUR"),
+                    new RoamingPack(303L, "Dünya 3GB", "Global", "region", 3, 30, 30, 34.9, 10, "USD"),
+                    new RoamingPack(305L, "ABD 5GB", "US", "country", 5, 50, 50, 24.9, 10, "USD")));
+
+    @Test
+    void testLookupMatchesFullSimulation() {
+        LocalDate start = LocalDate.of(2025, 9, 3);
+        int combos = 0;
+        for (int maxOptions : new int[]{64, 2}) {
+            var table = SimulationLookupTable.build(snapshot,
+                    new SimulationLookupTable.Settings(true, 20, maxOptions, PROFILES), COMBO);
+            for (String country : List.of("DE", "US", "JP")) {
+                for (int days = 1; days <= 20; days++) {
+                    var leg = new SimulationRequest.Leg(country, start, start.plusDays(days - 1));
+                    for (var profile : PROFILES) {
+                        for (int limit = 0; limit <= 4; limit++) {
+                            var req = new SimulationRequest(7L, List.of(leg), profile, limit);
+                            SimulationResponse cached = table.lookup(req, snapshot);
+                            if (cached == null) {
+                                // Kırpılmış hücre: sadece limitsiz ya da sığmayan istekler tabloya düşmez
+                                assertTrue(maxOptions == 2 && (limit == 0 || limit > 2), req.toString());
+                                continue;
+                            }
+                            assertEquals(PricingEngine.simulate(req, snapshot, COMBO), cached, req.toString());
+                            if ("combo".equals(cached.options().get(0).kind())) combos++;
+                        }
+                    }
+                }
+            }
+        }
+        // Tarih kaydırması da doğrulansın
+        assertTrue(combos > 0);
+    }
+
+    @Test
+    void testUnusualRequestsFallBack() {
+        var table = SimulationLookupTable.build(snapshot, new SimulationLookupTable.Settings(true, 20, 64, PROFILES), COMBO);
+        LocalDate d = LocalDate.of(2025, 9, 1);
+        var leg = new SimulationRequest.Leg("DE", d, d.plusDays(4));
+
+        assertNotNull(table.lookup(new SimulationRequest(1L, List.of(leg), PROFILES.get(0)), snapshot));
+        // Kovada olmayan profil, çok bacaklı trip, tablo dışı süre, başka snapshot
+        assertNull(table.lookup(new SimulationRequest(1L, List.of(leg),
+                new SimulationRequest.UsageProfileDto(601, 10, 2)), snapshot));
+        assertNull(table.lookup(new SimulationRequest(1L, List.of(leg,
+                new SimulationRequest.Leg("US", d.plusDays(5), d.plusDays(6))), PROFILES.get(0)), snapshot));
+        assertNull(table.lookup(new SimulationRequest(1L, List.of(
+                new SimulationRequest.Leg("DE", d, d.plusDays(20))), PROFILES.get(0)), snapshot));
+        PricingSnapshot next = PricingSnapshot.of(2L, List.of(), List.of(), List.of());
+        assertNull(table.lookup(new SimulationRequest(1L, List.of(leg), PROFILES.get(0)), next));
+    }
+
+    @Test
+    void testServiceBuildsTableForUnseenSnapshot() throws InterruptedException {
+        PricingSnapshotService snapshotService = mock(PricingSnapshotService.class);
+        when(snapshotService.current()).thenReturn(snapshot);
+        var service = new SimulationLookupService(snapshotService,
+                new SimulationLookupTable.Settings(true, 20, 64, PROFILES), COMBO);
+        LocalDate d = LocalDate.of(2025, 9, 1);
+        var req = new SimulationRequest(1L, List.of(new SimulationRequest.Leg("DE", d, d.plusDays(4))), PROFILES.get(0));
+        try {
+            // Katalog olayı hiç gelmese de ilk istek kurulumu başlatır, o arada tam simülasyona düşülür
+            assertNull(service.lookup(req, snapshot));
+            SimulationResponse cached = null;
+            for (int i = 0; i < 500 && cached == null; i++) {
+                Thread.sleep(10);
+                cached = service.lookup(req, snapshot);
+            }
+            assertEquals(PricingEngine.simulate(req, snapshot, COMBO), cached);
+        } finally {
+            service.shutdown();
+        }
+    }
+}
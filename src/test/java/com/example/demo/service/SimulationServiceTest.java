@@ -0,0 +1,273 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.SimulationRequest;
+import com.example.demo.dto.SimulationResponse;
+import com.example.demo.entity.Country;
+import com.example.demo.entity.RoamingPack;
+import com.example.demo.entity.RoamingRate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SimulationServiceTest {
+
+    @Mock
+    private PricingSnapshotService snapshotService;
+
+    private SimulationService simulationService;
+    private PricingSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        simulationService = new SimulationService(new TripService(null, null), snapshotService, new SimulationResultCache(100),
+                ComboSolver.Limits.DEFAULT,
+                new SimulationLookupService(null, SimulationLookupTable.Settings.DISABLED, ComboSolver.Limits.DEFAULT));
+
+        snapshot = PricingSnapshot.of(1L,
+                List.of(
+                        new Country("DE", "Germany", "Europe"),
+                        new Country("FR", "France", "Europe"),
+                        new Country("US", "United States", "North America"),
+                        new Country("AE", "United Arab Emirates", "Middle East")),
+                List.of(
+                        new RoamingRate("DE", 0.09, 0.4, 0.18, "EUR"),
+                        new RoamingRate("FR", 0.1, 0.42, 0.18, "EUR"),
+                        new RoamingRate("US", 0.15, 0.6, 0.25, "USD"),
+                        new RoamingRate("AE", 0.18, 0.75, 0.3, "USD")),
+                List.of(
+                        new RoamingPack(301L, "Avrupa 5GB", "Europe", "region", 5, 50, 50, 19.9, 7, "EUR"),
+                        new RoamingPack(302L, "Avrupa 10GB", "Europe", "region", 10, 100, 100, 29.9, 14, "EUR"),
+                        new RoamingPack(303L, "Dünya 3GB", "Global", "region", 3, 30, 30, 34.9, 10, "USD"),
+                        new RoamingPack(305L, "ABD 5GB", "US", "country", 5, 50, 50, 24.9, 10, "USD"),
+                        new RoamingPack(307L, "BAE 3GB", "AE", "country", 3, 30, 30, 22.9, 7, "USD"),
+                        new RoamingPack(311L, "Kuzey Amerika 5GB", "North America", "region", 5, 50, 50, 27.9, 10, "USD")));
+    }
+
+    @Test
+    void testSingleCountryUsesSnapshot() {
+        when(snapshotService.current()).thenReturn(snapshot);
+
+        SimulationResponse response = simulationService.simulate(request(
+                600, 10, 2,
+                new SimulationRequest.Leg("DE", LocalDate.of(2025, 8, 20), LocalDate.of(2025, 8, 25))));
+
+        assertEquals(6, response.summary().days());
+        assertEquals(3, response.options().size(), "2 Avrupa paketi + PAYG");
+
+        var best = response.options().get(0);
+        assertEquals("pack", best.kind());
+        assertEquals(301L, best.packId());
+        assertEquals(23.9, best.totalCost(), 0.001, "19.9 paket + 10 dk aşım");
+        assertTrue(best.validityOk());
+        assertEquals(4.0, best.overflow().overMinCost(), 0.001);
+
+        assertEquals(302L, response.options().get(1).packId());
+        assertEquals(29.9, response.options().get(1).totalCost(), 0.001);
+
+        var payg = response.options().get(2);
+        assertEquals("payg", payg.kind());
+        assertEquals(350.16, payg.totalCost(), 0.001);
+        assertTrue(response.warnings().isEmpty());
+        verify(snapshotService, times(1)).current();
+    }
+
+    @Test
+    void testEquivalentRequestsServedFromCache() {
+        when(snapshotService.current()).thenReturn(snapshot);
+
+        // Aynı rota: tarihler kaysa ve bacaklar bölünse de anahtar aynıdır
+        SimulationResponse first = simulationService.simulate(request(
+                600, 10, 2,
+                new SimulationRequest.Leg("DE", LocalDate.of(2025, 8, 20), LocalDate.of(2025, 8, 22)),
+                new SimulationRequest.Leg("FR", LocalDate.of(2025, 8, 23), LocalDate.of(2025, 8, 24))));
+        SimulationResponse second = simulationService.simulate(request(
+                600, 10, 2,
+                new SimulationRequest.Leg("DE", LocalDate.of(2025, 9, 1), LocalDate.of(2025, 9, 1)),
+                new SimulationRequest.Leg("DE", LocalDate.of(2025, 9, 2), LocalDate.of(2025, 9, 3)),
+                new SimulationRequest.Leg("FR", LocalDate.of(2025, 9, 4), LocalDate.of(2025, 9, 5))));
+        // Gün sırası farklı: kombinasyon fiyatı değişebileceği için ayrı anahtar
+        SimulationResponse reordered = simulationService.simulate(request(
+                600, 10, 2,
+                new SimulationRequest.Leg("FR", LocalDate.of(2025, 9, 1), LocalDate.of(2025, 9, 2)),
+                new SimulationRequest.Leg("DE", LocalDate.of(2025, 9, 3), LocalDate.of(2025, 9, 5))));
+        SimulationResponse otherProfile = simulationService.simulate(request(
+                900, 10, 2,
+                new SimulationRequest.Leg("DE", LocalDate.of(2025, 8, 20), LocalDate.of(2025, 8, 22)),
+                new SimulationRequest.Leg("FR", LocalDate.of(2025, 8, 23), LocalDate.of(2025, 8, 24))));
+
+        // Önbellekten gelen yanıt aynı özeti paylaşır (combo varsa sadece tarihleri kaydırılmış bir kopya döner)
+        assertSame(first.summary(), second.summary());
+        assertEquals(first.options().size(), second.options().size());
+        assertNotSame(first.summary(), reordered.summary());
+        assertNotSame(first.summary(), otherProfile.summary());
+        assertThrows(UnsupportedOperationException.class, () -> first.options().clear());
+    }
+
+    @Test
+    void testCachedComboUsesRequestDates() {
+        when(snapshotService.current()).thenReturn(snapshot);
+
+        SimulationResponse september = simulationService.simulate(request(
+                900, 15, 3,
+                new SimulationRequest.Leg("FR", LocalDate.of(2025, 9, 1), LocalDate.of(2025, 9, 8)),
+                new SimulationRequest.Leg("US", LocalDate.of(2025, 9, 9), LocalDate.of(2025, 9, 12))));
+        SimulationResponse january = simulationService.simulate(request(
+                900, 15, 3,
+                new SimulationRequest.Leg("FR", LocalDate.of(2026, 1, 10), LocalDate.of(2026, 1, 17)),
+                new SimulationRequest.Leg("US", LocalDate.of(2026, 1, 18), LocalDate.of(2026, 1, 21))));
+
+        // Aynı göreli rota: önbellekten gelir, ama alım tarihleri isteğe aittir
+        assertSame(september.summary(), january.summary());
+        assertEquals(LocalDate.of(2025, 9, 1), september.options().get(0).purchases().get(0).fromDate());
+        assertEquals(List.of(
+                new SimulationResponse.Option.Purchase(302L, "Avrupa 10GB", LocalDate.of(2026, 1, 10), LocalDate.of(2026, 1, 17), 38.3),
+                new SimulationResponse.Option.Purchase(305L, "ABD 5GB", LocalDate.of(2026, 1, 18), LocalDate.of(2026, 1, 21), 30.9)),
+                january.options().get(0).purchases());
+    }
+
+    @Test
+    void testMultiCountryPartialCoverage() {
+        SimulationResponse response = simulationService.simulate(request(
+                900, 15, 3,
+                new SimulationRequest.Leg("FR", LocalDate.of(2025, 9, 1), LocalDate.of(2025, 9, 8)),
+                new SimulationRequest.Leg("US", LocalDate.of(2025, 9, 9), LocalDate.of(2025, 9, 12))), snapshot);
+
+        assertEquals(12, response.summary().days());
+        assertEquals(10.547, response.summary().totalNeed().gb(), 0.001);
+
+        // En ucuzu kombinasyon: FR günleri Avrupa 10GB, US günleri ABD 5GB
+        var combo = response.options().get(0);
+        assertEquals("combo", combo.kind());
+        assertEquals("Avrupa 10GB + ABD 5GB", combo.packName());
+        assertEquals(2, combo.nPacks());
+        assertTrue(combo.coverageHit(), "her gün bir alımla kapsanıyor");
+        assertEquals(69.2, combo.totalCost(), 0.001, "29.9 + 20 dk aşım (FR) + 24.9 + 10 dk aşım (US)");
+        assertEquals(List.of(
+                new SimulationResponse.Option.Purchase(302L, "Avrupa 10GB", LocalDate.of(2025, 9, 1), LocalDate.of(2025, 9, 8), 38.3),
+                new SimulationResponse.Option.Purchase(305L, "ABD 5GB", LocalDate.of(2025, 9, 9), LocalDate.of(2025, 9, 12), 30.9)),
+                combo.purchases());
+
+        List<Long> order = response.options().stream().map(SimulationResponse.Option::packId).toList();
+        assertEquals(List.of(302L, 301L, 305L, 311L), order.subList(1, 5));
+        assertEquals("payg", response.options().get(5).kind());
+
+        var europe10 = response.options().get(1);
+        assertEquals("Avrupa 10GB", europe10.packName());
+        assertEquals(584.87, europe10.totalCost(), 0.001);
+        assertEquals(1, europe10.nPacks());
+        assertNotNull(europe10.overflow());
+        assertEquals(65.33, europe10.overflow().overMbCost(), 0.001);
+        assertEquals(38.4, europe10.overflow().overMinCost(), 0.001);
+
+        assertEquals(1056.01, response.options().get(3).totalCost(), 0.001);
+        assertEquals(1353.72, response.options().get(5).totalCost(), 0.001);
+
+        var europe5 = response.options().get(2);
+        assertEquals(594.77, europe5.totalCost(), 0.001);
+        assertEquals(2, europe5.nPacks());
+        assertFalse(europe5.validityOk());
+
+        assertTrue(response.warnings().contains("Paketin geçerliliği trip süresinden kısa: Avrupa 5GB"));
+        assertTrue(response.warnings().contains("Kapsama dışında gün(ler) var: ABD 5GB"));
+        assertEquals(7, response.warnings().size());
+    }
+
+    @Test
+    void testLimitReturnsPrefixOfFullList() {
+        SimulationRequest full = request(
+                900, 15, 3,
+                new SimulationRequest.Leg("FR", LocalDate.of(2025, 9, 1), LocalDate.of(2025, 9, 8)),
+                new SimulationRequest.Leg("US", LocalDate.of(2025, 9, 9), LocalDate.of(2025, 9, 12)));
+        SimulationResponse all = simulationService.simulate(full, snapshot);
+
+        for (int limit = 1; limit <= 7; limit++) {
+            SimulationResponse top = simulationService.simulate(full.withLimit(limit), snapshot);
+            assertEquals(all.options().subList(0, Math.min(limit, all.options().size())), top.options());
+        }
+
+        // Uyarılar sadece döndürülen paketler için: combo (yok), 302 (kapsama) ve 301 (validity + kapsama)
+        SimulationResponse top3 = simulationService.simulate(full.withLimit(3), snapshot);
+        assertEquals(List.of(
+                "Paketin geçerliliği trip süresinden kısa: Avrupa 5GB",
+                "Kapsama dışında gün(ler) var: Avrupa 5GB",
+                "Kapsama dışında gün(ler) var: Avrupa 10GB"), top3.warnings());
+        // Tüm liste dönerken de snapshot sırası: 301 ve 302'nin uyarıları öne gelir
+        assertEquals(top3.warnings(), all.warnings().subList(0, 3));
+
+        assertThrows(IllegalArgumentException.class, () -> simulationService.simulate(full.withLimit(-1), snapshot));
+    }
+
+    @Test
+    void testEqualCostPrefersCoverageThenValidity() {
+        PricingSnapshot ties = PricingSnapshot.of(2L,
+                List.of(new Country("DE", "Germany", "Europe"), new Country("FR", "France", "Europe")),
+                List.of(new RoamingRate("DE", 0.09, 0.4, 0.18, "EUR"), new RoamingRate("FR", 0.1, 0.42, 0.18, "EUR")),
+                List.of(
+                        new RoamingPack(1L, "Sadece DE", "DE", "country", 100, 1000, 1000, 10.0, 30, "EUR"),
+                        new RoamingPack(2L, "Avrupa kısa", "Europe", "region", 100, 1000, 1000, 5.0, 4, "EUR"),
+                        new RoamingPack(3L, "Avrupa", "Europe", "region", 100, 1000, 1000, 10.0, 7, "EUR")));
+        SimulationRequest req = request(
+                0, 0, 0,
+                new SimulationRequest.Leg("DE", LocalDate.of(2025, 9, 1), LocalDate.of(2025, 9, 4)),
+                new SimulationRequest.Leg("FR", LocalDate.of(2025, 9, 5), LocalDate.of(2025, 9, 7)));
+
+        // Hepsi 10.0: önce tam kapsama + uygun validity, sonra tam kapsama, en son kısmi kapsama
+        List<Long> order = simulationService.simulate(req, ties).options().stream()
+                .map(SimulationResponse.Option::packId).toList();
+        assertEquals(Arrays.asList(null, 3L, 2L, 1L), order);
+
+        List<Long> top3 = simulationService.simulate(req.withLimit(3), ties).options().stream()
+                .map(SimulationResponse.Option::packId).toList();
+        assertEquals(Arrays.asList(null, 3L, 2L), top3);
+    }
+
+    @Test
+    void testComboRepeatingSinglePackIsNotShown() {
+        PricingSnapshot repeat = PricingSnapshot.of(3L,
+                List.of(new Country("DE", "Germany", "Europe"), new Country("US", "United States", "North America")),
+                List.of(new RoamingRate("DE", 0.1, 0.4, 0.18, "EUR"), new RoamingRate("US", 0.1, 0.4, 0.18, "EUR")),
+                List.of(new RoamingPack(1L, "Avrupa 1GB", "Europe", "region", 1, 0, 0, 5.0, 7, "EUR")));
+        SimulationRequest req = request(
+                200, 0, 0,
+                new SimulationRequest.Leg("DE", LocalDate.of(2025, 9, 1), LocalDate.of(2025, 9, 10)),
+                new SimulationRequest.Leg("US", LocalDate.of(2025, 9, 11), LocalDate.of(2025, 9, 14)));
+
+        // DP: 2 x "Avrupa 1GB" (5+5 DE günü, aşım yok) + 4 gün PAYG = 90; tek paket seçeneği de 2 adet aynı paket
+        // ama trip geneli aşım + kapsanmayan pay ile 165.2. Aynı alım iki farklı fiyatla gösterilmez.
+        ComboSolver.Plan plan = ComboSolver.solve(req, repeat, ComboSolver.Limits.DEFAULT);
+        assertEquals(90.0, plan.cost(), 0.001);
+        assertEquals(2, plan.purchases().size());
+        assertEquals(4, plan.paygDays());
+
+        SimulationResponse response = simulationService.simulate(req, repeat);
+        assertTrue(response.options().stream().noneMatch(o -> "combo".equals(o.kind())));
+        assertEquals(1L, response.options().get(0).packId());
+        assertEquals(2, response.options().get(0).nPacks());
+        assertEquals(165.2, response.options().get(0).totalCost(), 0.001);
+    }
+
+    @Test
+    void testUnknownCountryOnlyPayg() {
+        SimulationResponse response = simulationService.simulate(request(
+                500, 8, 1,
+                new SimulationRequest.Leg("JP", LocalDate.of(2025, 10, 1), LocalDate.of(2025, 10, 3))), snapshot);
+
+        assertEquals(1, response.options().size());
+        assertEquals("payg", response.options().get(0).kind());
+        assertEquals(0.0, response.options().get(0).totalCost());
+    }
+
+    private static SimulationRequest request(int mb, int min, int sms, SimulationRequest.Leg... legs) {
+        return new SimulationRequest(1001L, List.of(legs), new SimulationRequest.UsageProfileDto(mb, min, sms));
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TariffFileReaderTest {
+
+    private static final String RATES = "\uFEFFcountry_code,data_per_mb,voice_per_min,sms_per_msg,currency\r\n"
+            + "DE,0.09,0.4,0.18,EUR\r\n"
+            + "\r\n"
+            + " GB , 0.11 ,0.48,0.22,GBP\r\n"
+            + "US,-1.5e-2,12,0.25,USD";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testMappedFileAcrossSmallWindows() throws IOException {
+        Path file = tempDir.resolve("rates.csv");
+        Files.writeString(file, RATES, StandardCharsets.UTF_8);
+
+        // Pencere başlıktan biraz büyük: satırlar pencere sınırlarında bölünür
+        List<String> rows = new ArrayList<>();
+        long count = TariffFileReader.read(file, 70, row -> rows.add(
+                row.getString(0) + "|" + row.getDouble(1) + "|" + row.getDouble(2) + "|" + row.getString(4)));
+
+        assertEquals(3, count);
+        assertEquals(List.of("DE|0.09|0.4|EUR", "GB|0.11|0.48|GBP", "US|-0.015|12.0|USD"), rows);
+    }
+
+    @Test
+    void testStreamWithGrowingBuffer() throws IOException {
+        List<String> codes = new ArrayList<>();
+        long count = TariffFileReader.read(
+                new ByteArrayInputStream(RATES.getBytes(StandardCharsets.UTF_8)), 8, row -> codes.add(row.getString(0)));
+
+        assertEquals(3, count);
+        assertEquals(List.of("DE", "GB", "US"), codes);
+    }
+
+    @Test
+    void testNumericFieldsMatchJdkParsing() throws IOException {
+        String csv = "pack_id,name,price,validity_days\n"
+                + "301,Avrupa 5GB,19.9,7\n"
+                + "302,Dünya 8GB,59.90,20\n"
+                + "9000000000,Büyük,0.1234567890123456789,365\n";
+        List<Object[]> rows = new ArrayList<>();
+        TariffFileReader.read(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), row ->
+                rows.add(new Object[]{row.getLong(0), row.getString(1), row.getDouble(2), row.getInt(3)}));
+
+        assertEquals(3, rows.size());
+        assertArrayEquals(new Object[]{301L, "Avrupa 5GB", 19.9, 7}, rows.get(0));
+        assertArrayEquals(new Object[]{302L, "Dünya 8GB", 59.9, 20}, rows.get(1));
+        assertEquals(9_000_000_000L, rows.get(2)[0]);
+        assertEquals(Double.parseDouble("0.1234567890123456789"), (double) rows.get(2)[2]);
+    }
+
+    @Test
+    void testLongDecimalsMatchJdkParsing() throws IOException {
+        // 15 basamak hızlı yolda kalır; 16-17 basamakta mantissa 2^53'ü aşabilir
+        List<String> values = new ArrayList<>(List.of(
+                "123456789.012345", "2723.6565894401638", "9007199254.740993", "0.9999999999999999", "-4503599627.3704967"));
+        Random rnd = new Random(11);
+        for (int i = 0; i < 20_000; i++) {
+            int digits = 1 + rnd.nextInt(18), dot = rnd.nextInt(digits + 1);
+            StringBuilder v = new StringBuilder(rnd.nextBoolean() ? "-" : "");
+            for (int d = 0; d < digits; d++) {
+                if (d == dot && d > 0) v.append('.');
+                v.append((char) ('0' + rnd.nextInt(10)));
+            }
+            values.add(v.toString());
+        }
+        StringBuilder csv = new StringBuilder("value\n");
+        values.forEach(v -> csv.append(v).append('\n'));
+        List<Double> parsed = new ArrayList<>();
+        TariffFileReader.read(new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)),
+                row -> parsed.add(row.getDouble(0)));
+
+        for (int i = 0; i < values.size(); i++) {
+            assertEquals(Double.parseDouble(values.get(i)), parsed.get(i), values.get(i));
+        }
+    }
+
+    @Test
+    void testInvalidNumberReportsField() {
+        String csv = "user_id,avg_daily_mb\n2001,abc\n";
+        var ex = assertThrows(NumberFormatException.class, () -> TariffFileReader.read(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), row -> row.getInt(1)));
+        assertTrue(ex.getMessage().contains("'abc'"));
+    }
+}
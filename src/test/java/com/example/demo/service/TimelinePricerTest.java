@@ -0,0 +1,89 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.SimulationRequest;
+import com.example.demo.dto.SimulationResponse;
+import com.example.demo.entity.Country;
+import com.example.demo.entity.RoamingPack;
+import com.example.demo.entity.RoamingRate;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimelinePricerTest {
+
+    private static final SimulationRequest.UsageProfileDto PROFILE = new SimulationRequest.UsageProfileDto(900, 15, 3);
+
+    private final PricingSnapshot snapshot = PricingSnapshot.of(1L,
+            List.of(
+                    new Country("DE", "Germany", "Europe"),
+                    new Country("FR", "France", "Europe"),
+                    new Country("US", "United States", "North America")),
+            List.of(
+                    new RoamingRate("DE", 0.09, 0.4, 0.18, "EUR"),
+                    new RoamingRate("FR", 0.1, 0.42, 0.18, "EUR"),
+                    new RoamingRate("US", 0.15, 0.6, 0.25, "USD")),
+            List.of(
+                    new RoamingPack(301L, "Avrupa 5GB", "Europe", "region", 5, 50, 50, 19.9, 7, "EUR"),
+                    new RoamingPack(305L, "ABD 5GB", "US", "country", 5, 50, 50, 24.9, 10, "USD")));
+
+    @Test
+    void testTracksQuotaExpiryAndMultiCountryDays() {
+        // 9/5'te FR ve US aynı gün: çok ülkeli gün
+        List<TimelinePricer.Day> days = TimelinePricer.days(List.of(
+                new SimulationRequest.Leg("FR", LocalDate.of(2025, 9, 1), LocalDate.of(2025, 9, 5)),
+                new SimulationRequest.Leg("US", LocalDate.of(2025, 9, 5), LocalDate.of(2025, 9, 6))));
+        assertEquals(6, days.size());
+        assertEquals(new TimelinePricer.Day(LocalDate.of(2025, 9, 5), "FR", "US"), days.get(4));
+
+        SimulationResponse r = new TimelinePricer(snapshot, days, PROFILE).response(0);
+        var europe = r.options().stream().filter(o -> Long.valueOf(301L).equals(o.packId())).findFirst().orElseThrow();
+        // FR 4.5 gün: 4050 MB < 5120, 67.5 dk > 50 → 17.5 dk * 0.42; US 1.5 gün PAYG
+        double usPayg = 1.5 * (900 * 0.15 + 15 * 0.6 + 3 * 0.25);
+        assertEquals(Math.round((19.9 + 17.5 * 0.42 + usPayg) * 100) / 100.0, europe.totalCost(), 0.001);
+        assertEquals(1, europe.nPacks());
+        assertFalse(europe.coverageHit());
+        assertTrue(r.warnings().contains("Kapsama dışında gün(ler) var: Avrupa 5GB"));
+
+        // 7 günlük paket 8 günlük trip'te bitişte yeniden alınır
+        SimulationResponse longer = new TimelinePricer(snapshot, TimelinePricer.days(List.of(
+                new SimulationRequest.Leg("DE", LocalDate.of(2025, 9, 1), LocalDate.of(2025, 9, 8)))), PROFILE).response(1);
+        assertEquals(301L, longer.options().get(0).packId());
+        assertEquals(2, longer.options().get(0).nPacks());
+        assertFalse(longer.options().get(0).validityOk());
+    }
+
+    @Test
+    void testIncrementalUpdateMatchesFullRecompute() {
+        Random rnd = new Random(3);
+        String[] countries = {"DE", "FR", "US"};
+        List<SimulationRequest.Leg> legs = new ArrayList<>();
+        LocalDate d = LocalDate.of(2025, 6, 1);
+        for (int i = 0; i < 12; i++) {
+            int len = 1 + rnd.nextInt(4);
+            legs.add(new SimulationRequest.Leg(countries[i % 3], d, d.plusDays(len - 1)));
+            d = d.plusDays(len);
+        }
+        TimelinePricer pricer = new TimelinePricer(snapshot, TimelinePricer.days(legs), PROFILE);
+        int total = pricer.days().size();
+
+        for (int edit = 0; edit < 20; edit++) {
+            // Son yarıdaki bir bacağın bitişi değişir (düzenleyicide tuş vuruşu)
+            int li = legs.size() / 2 + rnd.nextInt(legs.size() / 2);
+            var leg = legs.get(li);
+            LocalDate end = leg.endDate().plusDays(rnd.nextBoolean() ? 1 : -1);
+            if (end.isBefore(leg.startDate())) end = leg.startDate();
+            List<SimulationRequest.Leg> edited = new ArrayList<>(legs);
+            edited.set(li, new SimulationRequest.Leg(leg.countryCode(), leg.startDate(), end));
+            List<TimelinePricer.Day> days = TimelinePricer.days(edited);
+
+            pricer.replaceDays(days);
+            assertEquals(new TimelinePricer(snapshot, days, PROFILE).response(0), pricer.response(0));
+            assertTrue(pricer.lastRecomputedDays() < total, "suffix only");
+        }
+    }
+}
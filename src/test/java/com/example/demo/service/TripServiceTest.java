@@ -0,0 +1,62 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Trip;
+import com.example.demo.entity.TripDay;
+import com.example.demo.entity.TripSegment;
+import com.example.demo.repository.TripRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TripServiceTest {
+
+    @Mock
+    private TripRepository tripRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private TripService tripService;
+
+    @Test
+    void testCreateTripWritesSingleSegment() {
+        when(tripRepository.save(any(Trip.class))).thenAnswer(inv -> inv.getArgument(0));
+        Trip trip = new Trip(null, 1001L, "DE", null, false,
+                LocalDate.of(2025, 8, 1), LocalDate.of(2025, 10, 29));
+
+        Trip saved = tripService.createTripWithDays(trip);
+
+        assertEquals(1, saved.getSegments().size());
+        TripSegment s = saved.getSegments().get(0);
+        assertEquals("DE", s.getCountryCode());
+        assertEquals(90, s.dayCount());
+        assertSame(saved, s.getTrip());
+
+        // Günlük görünüm segmentten üretilir
+        List<TripDay> days = saved.days();
+        assertEquals(90, days.size());
+        assertEquals(LocalDate.of(2025, 8, 1), days.get(0).getDate());
+        assertEquals(LocalDate.of(2025, 10, 29), days.get(89).getDate());
+        assertTrue(days.stream().allMatch(d -> "DE".equals(d.getCountryCode1()) && !d.isMultiCountry()));
+    }
+
+    @Test
+    void testCreateTripRejectsReversedDates() {
+        Trip trip = new Trip(null, 1001L, "DE", null, false,
+                LocalDate.of(2025, 8, 10), LocalDate.of(2025, 8, 1));
+
+        assertThrows(IllegalArgumentException.class, () -> tripService.createTripWithDays(trip));
+    }
+}